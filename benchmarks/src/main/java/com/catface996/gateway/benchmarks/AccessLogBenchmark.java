@@ -0,0 +1,69 @@
+package com.catface996.gateway.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.catface996.gateway.infrastructure.filter.AccessLogFilter;
+import com.catface996.gateway.infrastructure.observability.SlowRequestLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the access log on a GET request: compare {@code accessLog} with {@code baseline},
+ * which runs the same request straight into the backend stub. At INFO the two log lines are written
+ * (to a file, see logback.xml); at WARN only the request ID, timing, request mutation and the
+ * request timeline remain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessLogBenchmark {
+
+    @Param({"INFO", "WARN"})
+    public String level;
+
+    private AccessLogFilter filter;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(AccessLogFilter.class)).setLevel(Level.toLevel(level));
+        // Request timelines on, as shipped; requests never reach the slow threshold here
+        filter = new AccessLogFilter(new SlowRequestLog(new SimpleMeterRegistry(), true, 1000, 100));
+    }
+
+    @Benchmark
+    public MockServerWebExchange baseline() {
+        MockServerWebExchange exchange = exchange();
+        BenchmarkSupport.OK.filter(exchange).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public MockServerWebExchange accessLog() {
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, BenchmarkSupport.OK).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/service/resources?page=1&size=20")
+                .header("X-Forwarded-For", "203.0.113.7"));
+    }
+}
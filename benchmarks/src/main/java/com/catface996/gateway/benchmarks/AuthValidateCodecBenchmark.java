@@ -0,0 +1,171 @@
+package com.catface996.gateway.benchmarks;
+
+import com.catface996.gateway.application.auth.dto.AuthValidateRequest;
+import com.catface996.gateway.application.auth.dto.AuthValidateResponse;
+import com.catface996.gateway.domain.auth.model.AuthenticationResult;
+import com.catface996.gateway.infrastructure.auth.client.AuthValidateCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The auth validate protocol: encoding the request with the token and decoding the response into an
+ * {@link AuthenticationResult}, with {@link AuthValidateCodec} and with the databind path WebClient
+ * takes for the DTOs (Jackson2JsonEncoder/Decoder with the gateway's ObjectMapper). Buffers come
+ * from Netty's pooled allocator, as on a client connection. Setup checks that both decode paths give
+ * the same result for a set of responses, so the codec cannot drift from databind unnoticed; the check
+ * lets databind ignore unknown fields, which the codec skips and the gateway's ObjectMapper rejects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthValidateCodecBenchmark {
+
+    private static final ResolvableType REQUEST_TYPE = ResolvableType.forClass(AuthValidateRequest.class);
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(AuthValidateResponse.class);
+
+    /**
+     * Responses both decode paths must agree on: the common shapes plus unknown fields, escapes and
+     * the coercions databind applies to {@code success}.
+     */
+    private static final String[] EQUIVALENCE_FIXTURES = {
+            "{\"success\":true,\"operatorId\":42,\"message\":null}",
+            "{\"success\":false,\"operatorId\":null,\"message\":\"Token expired\"}",
+            "{\"success\":false}",
+            "{}",
+            "{\"success\":true}",
+            "{\"traceId\":\"a\\\"b\",\"success\":true,\"roles\":[\"admin\",{\"scope\":[1,2.5e3]}],\"operatorId\":42,"
+                    + "\"meta\":{\"issuedAt\":-1,\"revoked\":false,\"note\":null}}",
+            "{\"success\":false,\"message\":\"Token \\\"abc\\\" expired\\n\\u00e9\\/\"}",
+            " { \"success\" : \"true\" , \"operatorId\" : \"42\" } ",
+            "{\"success\":\" TRUE \",\"operatorId\":42}",
+            "{\"success\":\"False\",\"operatorId\":42}",
+            "{\"success\":\"\",\"operatorId\":42}",
+            "{\"success\":\"null\",\"operatorId\":42}",
+            "{\"success\":1,\"operatorId\":42}",
+            "{\"success\":0,\"operatorId\":42}",
+            "{\"success\":null,\"operatorId\":42,\"message\":\"Denied\"}"
+    };
+
+    @Param({"success", "failure"})
+    private String response;
+
+    private NettyDataBufferFactory bufferFactory;
+    private Jackson2JsonEncoder encoder;
+    private Jackson2JsonDecoder decoder;
+    private Jackson2JsonDecoder lenientDecoder;
+    private byte[] responseBody;
+    // Non-final, so the JIT cannot constant-fold the token
+    private String token = BenchmarkSupport.TOKEN;
+
+    @Setup
+    public void setUp() {
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        encoder = new Jackson2JsonEncoder(BenchmarkSupport.objectMapper());
+        decoder = new Jackson2JsonDecoder(BenchmarkSupport.objectMapper());
+        lenientDecoder = new Jackson2JsonDecoder(BenchmarkSupport.objectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        String json = "success".equals(response)
+                ? "{\"success\":true,\"operatorId\":" + BenchmarkSupport.OPERATOR_ID + ",\"message\":null}"
+                : "{\"success\":false,\"operatorId\":null,\"message\":\"Token expired\"}";
+        responseBody = json.getBytes(StandardCharsets.UTF_8);
+        for (String fixture : EQUIVALENCE_FIXTURES) {
+            checkEquivalence(fixture);
+        }
+    }
+
+    @Benchmark
+    public int encodeDatabind() {
+        AuthValidateRequest request = AuthValidateRequest.builder().token(token).build();
+        DataBuffer buffer = encoder.encodeValue(request, bufferFactory, REQUEST_TYPE, MediaType.APPLICATION_JSON, null);
+        int bytes = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    @Benchmark
+    public int encodeCodec() {
+        DataBuffer buffer = AuthValidateCodec.encodeRequest(bufferFactory, token);
+        int bytes = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    @Benchmark
+    public AuthenticationResult decodeDatabind() {
+        return decodeDatabind(decoder, responseBuffer());
+    }
+
+    @Benchmark
+    public AuthenticationResult decodeCodec() {
+        return decodeCodec(responseBuffer());
+    }
+
+    private static AuthenticationResult decodeDatabind(Jackson2JsonDecoder decoder, DataBuffer buffer) {
+        // Releases the buffer
+        AuthValidateResponse decoded = (AuthValidateResponse) decoder.decode(buffer, RESPONSE_TYPE, null, null);
+        if (decoded.isSuccess() && decoded.getOperatorId() != null) {
+            return AuthenticationResult.success(decoded.getOperatorId());
+        }
+        return AuthenticationResult.failure(decoded.getMessage() != null
+                ? decoded.getMessage() : AuthValidateCodec.DEFAULT_FAILURE_MESSAGE);
+    }
+
+    private static AuthenticationResult decodeCodec(DataBuffer buffer) {
+        try {
+            return AuthValidateCodec.decodeResponse(buffer);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private void checkEquivalence(String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        AuthenticationResult expected = decodeDatabind(lenientDecoder, buffer(body));
+        AuthenticationResult actual = decodeCodec(buffer(body));
+        if (expected.isAuthenticated() != actual.isAuthenticated()
+                || !Objects.equals(expected.getOperatorId(), actual.getOperatorId())
+                || !Objects.equals(expected.getErrorMessage(), actual.getErrorMessage())) {
+            throw new IllegalStateException("Codec and databind disagree on " + json + ": "
+                    + describe(actual) + " vs " + describe(expected));
+        }
+    }
+
+    private static String describe(AuthenticationResult result) {
+        return result.isAuthenticated() ? "operator " + result.getOperatorId() : "failure '" + result.getErrorMessage() + "'";
+    }
+
+    private DataBuffer responseBuffer() {
+        return buffer(responseBody);
+    }
+
+    private DataBuffer buffer(byte[] body) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(body.length);
+        buffer.write(body);
+        return buffer;
+    }
+}
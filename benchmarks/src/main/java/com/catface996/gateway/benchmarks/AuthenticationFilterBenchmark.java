@@ -0,0 +1,60 @@
+package com.catface996.gateway.benchmarks;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.domain.auth.model.AuthenticationResult;
+import com.catface996.gateway.domain.auth.service.AuthenticationService;
+import com.catface996.gateway.infrastructure.error.ErrorResponseWriter;
+import com.catface996.gateway.infrastructure.filter.AuthenticationGatewayFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The authentication filter with the auth service call stubbed out (it answers immediately), so
+ * only the gateway's own work is measured: an authenticated request, and one without a token that
+ * is answered with a 401 error body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+    private AuthenticationGatewayFilter filter;
+
+    @Setup
+    public void setUp() {
+        Mono<AuthenticationResult> authenticated = Mono.just(AuthenticationResult.success(BenchmarkSupport.OPERATOR_ID));
+        AuthenticationService authenticationService = tokenInfo -> authenticated;
+        filter = new AuthenticationGatewayFilter(authenticationService, new ErrorResponseWriter(512), true);
+    }
+
+    @Benchmark
+    public MockServerWebExchange authenticated() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/service/resources")
+                .header(RouteConstants.HEADER_AUTHORIZATION, "Bearer " + BenchmarkSupport.TOKEN));
+        filter.filter(exchange, BenchmarkSupport.OK).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public long missingToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/service/resources"));
+        filter.filter(exchange, BenchmarkSupport.OK).block();
+        return BenchmarkSupport.drain(exchange.getResponse().getBody());
+    }
+}
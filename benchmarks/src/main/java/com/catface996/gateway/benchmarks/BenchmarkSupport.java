@@ -0,0 +1,83 @@
+package com.catface996.gateway.benchmarks;
+
+import com.catface996.gateway.infrastructure.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+public final class BenchmarkSupport {
+
+    /**
+     * A JWT-sized bearer token.
+     */
+    public static final String TOKEN = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9"
+            + ".eyJzdWIiOiIxMDAxIiwib3BlcmF0b3JJZCI6MTAwMSwicm9sZXMiOlsiT1BFUkFUT1IiXSwiaWF0IjoxNzAwMDAwMDAwLCJleHAiOjE3MDAwMDM2MDB9"
+            + ".3q2N8k7aJ0cZ9YvYp2r1nX6tQk8bW4eL5mH0sU1fG7o";
+
+    /**
+     * Operator ID the stubbed authentication returns.
+     */
+    public static final long OPERATOR_ID = 1001L;
+
+    /**
+     * Chain standing in for the backend: answers 200 without a body.
+     */
+    public static final GatewayFilterChain OK = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    /**
+     * Chain standing in for the backend: reads and releases the request body the filter passes on.
+     */
+    public static final GatewayFilterChain CONSUME_REQUEST_BODY = exchange ->
+            DataBufferUtils.join(exchange.getRequest().getBody())
+                    .doOnNext(DataBufferUtils::release)
+                    .then();
+
+    private BenchmarkSupport() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Returns an ObjectMapper configured like the gateway's.
+     */
+    public static ObjectMapper objectMapper() {
+        return new JacksonConfig().objectMapper();
+    }
+
+    /**
+     * Returns a JSON object of at least {@code targetBytes} bytes: a name and an array of small items.
+     */
+    public static byte[] jsonObject(int targetBytes) {
+        StringBuilder json = new StringBuilder(targetBytes + 64).append("{\"name\":\"benchmark\",\"items\":[");
+        for (int i = 0; json.length() < targetBytes - 2; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"value\":\"item-").append(i).append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads, releases and counts a response body.
+     */
+    public static long drain(Flux<DataBuffer> body) {
+        Long bytes = body.map(buffer -> {
+            int count = buffer.readableByteCount();
+            DataBufferUtils.release(buffer);
+            return (long) count;
+        }).reduce(0L, Long::sum).block();
+        return bytes != null ? bytes : 0;
+    }
+}
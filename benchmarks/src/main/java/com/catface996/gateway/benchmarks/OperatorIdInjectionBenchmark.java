@@ -0,0 +1,57 @@
+package com.catface996.gateway.benchmarks;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.filter.OperatorIdInjectionFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Injecting the operator ID into JSON POST bodies of 100B to 5MB, including reading the body and
+ * handing the rewritten body to the backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperatorIdInjectionBenchmark {
+
+    @Param({"100", "10240", "1048576", "5242880"})
+    public int bodySize;
+
+    private OperatorIdInjectionFilter filter;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        filter = new OperatorIdInjectionFilter(BenchmarkSupport.objectMapper());
+        body = BenchmarkSupport.jsonObject(bodySize);
+    }
+
+    @Benchmark
+    public MockServerWebExchange injectOperatorId() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/service/resources")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))));
+        exchange.getAttributes().put(RouteConstants.OPERATOR_ID_ATTR, BenchmarkSupport.OPERATOR_ID);
+        filter.filter(exchange, BenchmarkSupport.CONSUME_REQUEST_BODY).block();
+        return exchange;
+    }
+}
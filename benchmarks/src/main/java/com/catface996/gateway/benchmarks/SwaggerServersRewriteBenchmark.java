@@ -0,0 +1,82 @@
+package com.catface996.gateway.benchmarks;
+
+import com.catface996.gateway.infrastructure.filter.SwaggerServersRewriteGatewayFilterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewriting the "servers" field of OpenAPI documents with 10 to 2000 operations, as served on the
+ * /docs/** routes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwaggerServersRewriteBenchmark {
+
+    @Param({"10", "200", "2000"})
+    public int operations;
+
+    private GatewayFilter filter;
+    private GatewayFilterChain backend;
+
+    @Setup
+    public void setUp() {
+        filter = new SwaggerServersRewriteGatewayFilterFactory(BenchmarkSupport.objectMapper())
+                .apply(new SwaggerServersRewriteGatewayFilterFactory.Config());
+        byte[] apiDocs = apiDocs(operations);
+        backend = exchange -> exchange.getResponse().writeWith(
+                Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(apiDocs)));
+    }
+
+    @Benchmark
+    public long rewriteServers() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("http://localhost:8080/docs/service/v3/api-docs"));
+        filter.filter(exchange, backend).block();
+        return BenchmarkSupport.drain(exchange.getResponse().getBody());
+    }
+
+    private static byte[] apiDocs(int operations) {
+        StringBuilder json = new StringBuilder()
+                .append("{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"op-stack-service\",\"version\":\"1.0.0\"},")
+                .append("\"servers\":[{\"url\":\"http://op-stack-service:8080\",\"description\":\"Generated server url\"}],")
+                .append("\"paths\":{");
+        for (int i = 0; i < operations; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"/api/service/resources/").append(i).append("\":{\"post\":{")
+                    .append("\"tags\":[\"resources\"],\"summary\":\"Operation ").append(i).append("\",")
+                    .append("\"operationId\":\"operation").append(i).append("\",")
+                    .append("\"requestBody\":{\"content\":{\"application/json\":{\"schema\":")
+                    .append("{\"$ref\":\"#/components/schemas/Request\"}}},\"required\":true},")
+                    .append("\"responses\":{\"200\":{\"description\":\"OK\",\"content\":{\"*/*\":{\"schema\":")
+                    .append("{\"$ref\":\"#/components/schemas/Response\"}}}}}}}");
+        }
+        json.append("},\"components\":{\"schemas\":{")
+                .append("\"Request\":{\"type\":\"object\",\"properties\":{\"operatorId\":{\"type\":\"integer\"}}},")
+                .append("\"Response\":{\"type\":\"object\",\"properties\":{\"code\":{\"type\":\"string\"}}}}}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
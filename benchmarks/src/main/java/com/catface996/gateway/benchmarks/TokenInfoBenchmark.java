@@ -0,0 +1,47 @@
+package com.catface996.gateway.benchmarks;
+
+import com.catface996.gateway.domain.auth.model.TokenInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracting the token from Authorization headers: a JWT bearer token, a header with another scheme
+ * and a missing header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenInfoBenchmark {
+
+    // Non-final, so the JIT cannot constant-fold the headers
+    private String bearerHeader = "Bearer " + BenchmarkSupport.TOKEN;
+    private String basicHeader = "Basic b3BlcmF0b3I6c2VjcmV0";
+    private String missingHeader = null;
+
+    @Benchmark
+    public TokenInfo bearerToken() {
+        return TokenInfo.fromBearerToken(bearerHeader);
+    }
+
+    @Benchmark
+    public TokenInfo otherScheme() {
+        return TokenInfo.fromBearerToken(basicHeader);
+    }
+
+    @Benchmark
+    public TokenInfo missing() {
+        return TokenInfo.fromBearerToken(missingHeader);
+    }
+}
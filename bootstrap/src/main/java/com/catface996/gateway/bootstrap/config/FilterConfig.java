@@ -12,14 +12,38 @@ import org.springframework.context.annotation.Configuration;
  * Registered filters:
  * <ul>
  *     <li>{@code AccessLogFilter} - Logs all incoming requests and responses</li>
+ *     <li>{@code EventLoopAdmissionFilter} - Sheds new requests with 503 while the event loops are lagging</li>
+ *     <li>{@code StreamingResponseFilter} - Flushes streamed responses chunk by chunk and records time to first byte</li>
+ *     <li>{@code ResponseCompressionFilter} - Compresses responses with gzip or deflate using pooled compressors</li>
  *     <li>{@code AuthenticationGatewayFilter} - Validates JWT tokens for protected routes</li>
+ *     <li>{@code RateLimitFilter} - Rate limits requests per operator (or client IP) and route</li>
  *     <li>{@code OperatorIdInjectionFilter} - Injects operatorId into request body</li>
+ *     <li>{@code ResponseCacheFilter} - Serves repeated GET requests from the off-heap response cache</li>
+ *     <li>{@code RequestCollapsingFilter} - Shares one upstream call among concurrent identical GET requests</li>
+ *     <li>{@code IdempotencyFilter} - Replays stored responses for POSTs retried with the same Idempotency-Key</li>
+ *     <li>{@code CircuitBreakerFilter} - Fails fast when a backend service's circuit is open</li>
+ *     <li>{@code ConcurrencyLimitFilter} - Adapts per-backend concurrency and sheds excess load</li>
+ *     <li>{@code RetryFilter} - Retries idempotent requests within a per-backend retry budget</li>
+ *     <li>{@code HedgingRoutingFilter} - Hedges slow GET requests on opted-in routes</li>
+ *     <li>{@code BackendRoutingFilter} - Proxies requests over per-backend clients and connection pools</li>
  * </ul>
+ * <p>
+ * {@code TimedFilteringWebHandler} runs the chain and, when enabled, times each filter in it.
+ * {@code JitWarmupRunner} pushes synthetic requests through the chain before readiness.
+ * {@code ErrorResponseWriter} writes the error responses of filters and {@code GlobalExceptionHandler}.
  */
 @Configuration
 @ComponentScan(basePackages = {
         "com.catface996.gateway.infrastructure.filter",
         "com.catface996.gateway.infrastructure.auth",
+        "com.catface996.gateway.infrastructure.resilience",
+        "com.catface996.gateway.infrastructure.ratelimit",
+        "com.catface996.gateway.infrastructure.cache",
+        "com.catface996.gateway.infrastructure.compression",
+        "com.catface996.gateway.infrastructure.upstream",
+        "com.catface996.gateway.infrastructure.observability",
+        "com.catface996.gateway.infrastructure.warmup",
+        "com.catface996.gateway.infrastructure.error",
         "com.catface996.gateway.infrastructure.config"
 })
 public class FilterConfig {
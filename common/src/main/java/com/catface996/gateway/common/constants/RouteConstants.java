@@ -67,6 +67,93 @@ public final class RouteConstants {
      */
     public static final String METADATA_KEY_SERVICE = "service";
 
+    /**
+     * Metadata key for the circuit breaker name (defaults to the target service; "false" disables it)
+     */
+    public static final String METADATA_KEY_CIRCUIT_BREAKER = "circuit-breaker";
+
+    /**
+     * Metadata key for the maximum number of retries of a proxied request (0 disables retries)
+     */
+    public static final String METADATA_KEY_RETRIES = "retries";
+
+    /**
+     * Metadata key marking every method of a route as idempotent (safe to retry)
+     */
+    public static final String METADATA_KEY_IDEMPOTENT = "idempotent";
+
+    /**
+     * Metadata key for the latency in milliseconds after which a GET is hedged
+     */
+    public static final String METADATA_KEY_HEDGE_AFTER_MS = "hedge-after-ms";
+
+    /**
+     * Metadata key for the sustained request rate allowed per operator/client (requests per second, 0 disables)
+     */
+    public static final String METADATA_KEY_RATE_LIMIT_REPLENISH_RATE = "rate-limit-replenish-rate";
+
+    /**
+     * Metadata key for the request burst allowed per operator/client
+     */
+    public static final String METADATA_KEY_RATE_LIMIT_BURST_CAPACITY = "rate-limit-burst-capacity";
+
+    /**
+     * Metadata key for the admission priority of a route under load ("high" routes are shed last)
+     */
+    public static final String METADATA_KEY_PRIORITY = "priority";
+
+    /**
+     * Metadata value for high admission priority
+     */
+    public static final String PRIORITY_HIGH = "high";
+
+    /**
+     * Metadata key for how long GET responses of a route may be served from the gateway cache (0 disables caching)
+     */
+    public static final String METADATA_KEY_RESPONSE_CACHE_TTL_SECONDS = "response-cache-ttl-seconds";
+
+    /**
+     * Metadata key for whether cached responses are kept per operator (default true) or shared by all callers
+     */
+    public static final String METADATA_KEY_RESPONSE_CACHE_PER_OPERATOR = "response-cache-per-operator";
+
+    /**
+     * Metadata key enabling collapsing of concurrent identical GET requests into one upstream call
+     */
+    public static final String METADATA_KEY_COLLAPSE_REQUESTS = "collapse-requests";
+
+    /**
+     * Metadata key for whether requests are collapsed per operator (default true) or across all callers
+     */
+    public static final String METADATA_KEY_COLLAPSE_PER_OPERATOR = "collapse-per-operator";
+
+    /**
+     * Metadata key enabling Idempotency-Key handling (response replay for retried POSTs) on a route
+     */
+    public static final String METADATA_KEY_IDEMPOTENCY_KEY = "idempotency-key";
+
+    /**
+     * Metadata key for the smallest response (bytes) compressed on a route (negative disables compression)
+     */
+    public static final String METADATA_KEY_COMPRESSION_MIN_BYTES = "compression-min-bytes";
+
+    /**
+     * Metadata key for the comma-separated content types compressed on a route
+     */
+    public static final String METADATA_KEY_COMPRESSION_MIME_TYPES = "compression-mime-types";
+
+    /**
+     * Metadata key marking a route's chunked responses (no Content-Length) as streams, flushed chunk by chunk
+     */
+    public static final String METADATA_KEY_STREAMING = "streaming";
+
+    // ========== Exchange Attributes ==========
+
+    /**
+     * Exchange attribute holding the authenticated operator ID
+     */
+    public static final String OPERATOR_ID_ATTR = "operatorId";
+
     // ========== HTTP Headers ==========
 
     /**
@@ -83,4 +170,29 @@ public final class RouteConstants {
      * Request ID header for tracing
      */
     public static final String HEADER_REQUEST_ID = "X-Request-ID";
+
+    /**
+     * Retry-After header returned with 429 responses
+     */
+    public static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    /**
+     * Response header telling whether a response was served from the gateway cache (HIT or MISS)
+     */
+    public static final String HEADER_X_CACHE = "X-Cache";
+
+    /**
+     * Request header carrying a client-chosen key that makes a POST safe to retry
+     */
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Response header marking a response replayed for a repeated Idempotency-Key
+     */
+    public static final String HEADER_IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    /**
+     * Response header telling reverse proxies in front of the gateway not to buffer a streamed response
+     */
+    public static final String HEADER_X_ACCEL_BUFFERING = "X-Accel-Buffering";
 }
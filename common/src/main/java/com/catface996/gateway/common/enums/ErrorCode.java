@@ -11,6 +11,11 @@ import lombok.Getter;
 @AllArgsConstructor
 public enum ErrorCode {
 
+    /**
+     * Malformed Idempotency-Key header
+     */
+    INVALID_IDEMPOTENCY_KEY(400, "INVALID_IDEMPOTENCY_KEY", "Invalid Idempotency-Key header"),
+
     /**
      * Invalid, expired, or missing JWT token
      */
@@ -26,6 +31,16 @@ public enum ErrorCode {
      */
     NOT_FOUND(404, "NOT_FOUND", "Resource not found"),
 
+    /**
+     * Idempotency-Key already used by the operator for a different request
+     */
+    IDEMPOTENCY_KEY_REUSED(422, "IDEMPOTENCY_KEY_REUSED", "Idempotency-Key was already used for a different request"),
+
+    /**
+     * Request rate limit exceeded for the operator or client
+     */
+    TOO_MANY_REQUESTS(429, "TOO_MANY_REQUESTS", "Too many requests"),
+
     /**
      * Unexpected gateway error
      */
@@ -0,0 +1,18 @@
+package com.catface996.gateway.common.exception;
+
+import com.catface996.gateway.common.enums.ErrorCode;
+
+/**
+ * Exception for requests with an unusable Idempotency-Key.
+ * Thrown when the key is malformed or was already used for a different request.
+ */
+public class IdempotencyKeyException extends GatewayException {
+
+    public IdempotencyKeyException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+
+    public IdempotencyKeyException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+}
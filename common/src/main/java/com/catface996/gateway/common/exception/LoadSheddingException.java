@@ -0,0 +1,13 @@
+package com.catface996.gateway.common.exception;
+
+/**
+ * Exception for requests the gateway itself sheds to protect a backend or its event loops.
+ * Answered with 503 like any unavailable service, but not a failure of the backend, so circuit
+ * breakers ignore it.
+ */
+public class LoadSheddingException extends ServiceUnavailableException {
+
+    public LoadSheddingException(String message) {
+        super(message);
+    }
+}
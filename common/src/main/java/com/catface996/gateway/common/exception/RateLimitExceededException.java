@@ -0,0 +1,24 @@
+package com.catface996.gateway.common.exception;
+
+import com.catface996.gateway.common.enums.ErrorCode;
+import lombok.Getter;
+
+/**
+ * Exception for requests rejected by the gateway rate limiter.
+ * Carries the number of seconds after which the client may retry.
+ */
+@Getter
+public class RateLimitExceededException extends GatewayException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(ErrorCode.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(ErrorCode.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,12 +1,13 @@
 package com.catface996.gateway.infrastructure.auth.client;
 
-import com.catface996.gateway.application.auth.dto.AuthValidateRequest;
-import com.catface996.gateway.application.auth.dto.AuthValidateResponse;
 import com.catface996.gateway.domain.auth.model.AuthenticationResult;
 import com.catface996.gateway.domain.auth.model.TokenInfo;
 import com.catface996.gateway.domain.auth.service.AuthenticationService;
+import com.catface996.gateway.infrastructure.error.ErrorLogThrottle;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -17,20 +18,27 @@ import reactor.core.publisher.Mono;
  * HTTP client implementation for the auth service.
  * <p>
  * Calls the op-stack-auth service to validate JWT tokens and retrieve operator information.
+ * Request and response bodies go through {@link AuthValidateCodec} rather than databind.
  */
 @Slf4j
 @Component
 public class AuthServiceClient implements AuthenticationService {
 
+    private static final String ERROR_RESPONSE_LOG_KEY = "auth-service-error-response";
+    private static final String CALL_FAILED_LOG_KEY = "auth-service-call-failed";
+
     private final WebClient webClient;
+    private final ErrorLogThrottle errorLogThrottle;
     private final String authServiceUrl;
     private final String validateEndpoint;
 
     public AuthServiceClient(
             WebClient.Builder webClientBuilder,
+            ErrorLogThrottle errorLogThrottle,
             @Value("${gateway.services.op-stack-auth.url}") String authServiceUrl,
             @Value("${gateway.auth.validate-endpoint:/auth/validate}") String validateEndpoint) {
         this.webClient = webClientBuilder.baseUrl(authServiceUrl).build();
+        this.errorLogThrottle = errorLogThrottle;
         this.authServiceUrl = authServiceUrl;
         this.validateEndpoint = validateEndpoint;
     }
@@ -41,36 +49,44 @@ public class AuthServiceClient implements AuthenticationService {
             return Mono.just(AuthenticationResult.failure("Invalid or missing token"));
         }
 
-        AuthValidateRequest request = AuthValidateRequest.builder()
-                .token(tokenInfo.getToken())
-                .build();
+        String token = tokenInfo.getToken();
 
         log.debug("Validating token with auth service at {}{}", authServiceUrl, validateEndpoint);
 
         return webClient.post()
                 .uri(validateEndpoint)
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(request)
+                .body((outputMessage, context) -> outputMessage.writeWith(
+                        Mono.fromSupplier(() -> AuthValidateCodec.encodeRequest(outputMessage.bufferFactory(), token))
+                                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)))
                 .retrieve()
-                .bodyToMono(AuthValidateResponse.class)
+                .bodyToMono(DataBuffer.class)
                 .map(this::toAuthenticationResult)
                 .onErrorResume(WebClientResponseException.class, this::handleWebClientError)
                 .onErrorResume(Exception.class, this::handleGenericError);
     }
 
-    private AuthenticationResult toAuthenticationResult(AuthValidateResponse response) {
-        if (response.isSuccess() && response.getOperatorId() != null) {
-            log.debug("Token validated successfully, operatorId: {}", response.getOperatorId());
-            return AuthenticationResult.success(response.getOperatorId());
+    private AuthenticationResult toAuthenticationResult(DataBuffer body) {
+        AuthenticationResult result;
+        try {
+            result = AuthValidateCodec.decodeResponse(body);
+        } finally {
+            DataBufferUtils.release(body);
+        }
+        if (result.isAuthenticated()) {
+            log.debug("Token validated successfully, operatorId: {}", result.getOperatorId());
         } else {
-            String message = response.getMessage() != null ? response.getMessage() : "Token validation failed";
-            log.debug("Token validation failed: {}", message);
-            return AuthenticationResult.failure(message);
+            log.debug("Token validation failed: {}", result.getErrorMessage());
         }
+        return result;
     }
 
     private Mono<AuthenticationResult> handleWebClientError(WebClientResponseException ex) {
-        log.warn("Auth service returned error: {} {}", ex.getStatusCode(), ex.getMessage());
+        long suppressed = errorLogThrottle.acquire(ERROR_RESPONSE_LOG_KEY);
+        if (suppressed >= 0) {
+            log.warn("Auth service returned error: {} {}{}", ex.getStatusCode(), ex.getMessage(),
+                    ErrorLogThrottle.suppressed(suppressed));
+        }
         if (ex.getStatusCode().is4xxClientError()) {
             return Mono.just(AuthenticationResult.failure("Invalid token"));
         }
@@ -78,7 +94,11 @@ public class AuthServiceClient implements AuthenticationService {
     }
 
     private Mono<AuthenticationResult> handleGenericError(Exception ex) {
-        log.error("Error calling auth service: {}", ex.getMessage(), ex);
+        // The stack trace only with the first failure per interval
+        long suppressed = errorLogThrottle.acquire(CALL_FAILED_LOG_KEY);
+        if (suppressed >= 0) {
+            log.error("Error calling auth service: {}{}", ex.getMessage(), ErrorLogThrottle.suppressed(suppressed), ex);
+        }
         return Mono.just(AuthenticationResult.failure("Authentication service error"));
     }
 }
@@ -0,0 +1,464 @@
+package com.catface996.gateway.infrastructure.auth.client;
+
+import com.catface996.gateway.domain.auth.model.AuthenticationResult;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec for the auth service's validate protocol, specialized for its fixed schema.
+ * <p>
+ * The request is {@code {"token":"..."}} and the response {@code AuthValidateResponse}:
+ * {@code success}, {@code operatorId} and {@code message}. Going through databind costs a request
+ * DTO, bean introspection and an intermediate byte array per call, plus a response DTO. Instead, the
+ * request is written straight into a buffer from the connection's (pooled) allocator - the token
+ * spliced between constant bytes - and the response is read in a single streaming pass over the
+ * buffer into an {@link AuthenticationResult}, coercing values the way databind does. Unlike the
+ * gateway's ObjectMapper, which rejects them, unknown fields are skipped, so the auth service can add
+ * fields without failing every validation. The reader is hand-written rather than a Jackson
+ * {@code JsonParser}, whose creation alone allocates several times what the whole decode does here;
+ * it only allocates the message of a failure.
+ */
+public final class AuthValidateCodec {
+
+    private static final byte[] REQUEST_PREFIX = "{\"token\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REQUEST_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[][] FIELD_NAMES = {
+            "success".getBytes(StandardCharsets.US_ASCII),
+            "operatorId".getBytes(StandardCharsets.US_ASCII),
+            "message".getBytes(StandardCharsets.US_ASCII)
+    };
+    private static final int FIELD_SUCCESS = 0;
+    private static final int FIELD_OPERATOR_ID = 1;
+    private static final int FIELD_MESSAGE = 2;
+    private static final int FIELD_UNKNOWN = -1;
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Message of a failed validation the auth service gave no message for.
+     */
+    public static final String DEFAULT_FAILURE_MESSAGE = "Token validation failed";
+
+    private AuthValidateCodec() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Encodes a validate request.
+     *
+     * @param bufferFactory the factory to allocate the buffer from
+     * @param token         the JWT token
+     * @return the request body; the caller owns (and must write or release) it
+     */
+    public static DataBuffer encodeRequest(DataBufferFactory bufferFactory, String token) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(REQUEST_PREFIX.length + token.length() + REQUEST_SUFFIX.length);
+        buffer.write(REQUEST_PREFIX);
+        if (needsEscaping(token)) {
+            buffer.write(JsonStringEncoder.getInstance().quoteAsUTF8(token));
+        } else {
+            buffer.write(token, StandardCharsets.UTF_8);
+        }
+        buffer.write(REQUEST_SUFFIX);
+        return buffer;
+    }
+
+    /**
+     * Decodes a validate response: successful if {@code success} is true and an operator ID is
+     * present, failed with the response's message otherwise.
+     *
+     * @param buffer the response body; read in place, neither consumed nor released
+     * @return the authentication result
+     * @throws DecodingException if the body is not a JSON object of the expected field types
+     */
+    public static AuthenticationResult decodeResponse(DataBuffer buffer) {
+        ResponseReader reader = new ResponseReader(buffer);
+        boolean success = false;
+        Long operatorId = null;
+        String message = null;
+
+        reader.expect('{');
+        if (!reader.skipIf('}')) {
+            do {
+                int field = reader.readFieldName();
+                reader.expect(':');
+                switch (field) {
+                    case FIELD_SUCCESS -> success = reader.readBoolean();
+                    case FIELD_OPERATOR_ID -> operatorId = reader.readLong();
+                    case FIELD_MESSAGE -> message = reader.readString();
+                    default -> reader.skipValue();
+                }
+            } while (reader.skipIf(','));
+            reader.expect('}');
+        }
+        reader.expectEnd();
+
+        if (success && operatorId != null) {
+            return AuthenticationResult.success(operatorId);
+        }
+        return AuthenticationResult.failure(message != null ? message : DEFAULT_FAILURE_MESSAGE);
+    }
+
+    /**
+     * Returns whether the string has characters JSON strings must escape. JWTs are base64url
+     * segments, so this is never the case for well-formed tokens.
+     */
+    private static boolean needsEscaping(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Single-pass JSON reader over the readable bytes of a buffer, for the flat object the auth
+     * service answers with. It reads values in place and only allocates for the message string.
+     */
+    private static final class ResponseReader {
+
+        private final DataBuffer buffer;
+        private final int end;
+        private int pos;
+
+        ResponseReader(DataBuffer buffer) {
+            this.buffer = buffer;
+            this.pos = buffer.readPosition();
+            this.end = buffer.writePosition();
+        }
+
+        void expect(char c) {
+            if (!skipIf(c)) {
+                throw error("expected '" + c + "'");
+            }
+        }
+
+        boolean skipIf(char c) {
+            skipWhitespace();
+            if (pos < end && buffer.getByte(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            if (pos != end) {
+                throw error("unexpected content after the object");
+            }
+        }
+
+        /**
+         * Reads a field name and returns the index of the known field it matches.
+         */
+        int readFieldName() {
+            skipWhitespace();
+            int start = pos + 1;
+            skipString();
+            int length = pos - 1 - start;
+            for (int field = 0; field < FIELD_NAMES.length; field++) {
+                if (matches(start, length, FIELD_NAMES[field])) {
+                    return field;
+                }
+            }
+            return FIELD_UNKNOWN;
+        }
+
+        /**
+         * Reads a boolean, coercing like databind does into a {@code Boolean}: the literals, a
+         * string holding {@code true} or {@code false} in any case (blank or {@code "null"} read as
+         * null), or an integer, true unless zero. Null reads as false.
+         */
+        boolean readBoolean() {
+            skipWhitespace();
+            switch (peek()) {
+                case 't' -> {
+                    skipLiteral(TRUE);
+                    return true;
+                }
+                case 'f' -> {
+                    skipLiteral(FALSE);
+                    return false;
+                }
+                case 'n' -> {
+                    skipLiteral(NULL);
+                    return false;
+                }
+                case '"' -> {
+                    return readQuotedBoolean();
+                }
+                default -> {
+                    return readIntegerBoolean();
+                }
+            }
+        }
+
+        private boolean readQuotedBoolean() {
+            int start = pos + 1;
+            boolean escaped = skipString();
+            int length = pos - 1 - start;
+            if (escaped) {
+                String text = unescape(start, length).trim();
+                if (text.equalsIgnoreCase("true")) {
+                    return true;
+                }
+                if (text.isEmpty() || text.equalsIgnoreCase("false") || text.equals("null")) {
+                    return false;
+                }
+                throw error("success is not a boolean");
+            }
+            while (length > 0 && buffer.getByte(start) <= ' ') {
+                start++;
+                length--;
+            }
+            while (length > 0 && buffer.getByte(start + length - 1) <= ' ') {
+                length--;
+            }
+            if (matchesIgnoreCase(start, length, TRUE)) {
+                return true;
+            }
+            if (length == 0 || matchesIgnoreCase(start, length, FALSE) || matches(start, length, NULL)) {
+                return false;
+            }
+            throw error("success is not a boolean");
+        }
+
+        private boolean readIntegerBoolean() {
+            if (peek() == '-') {
+                pos++;
+            }
+            boolean nonZero = false;
+            int digits = 0;
+            while (pos < end) {
+                int digit = buffer.getByte(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                nonZero |= digit != 0;
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || (pos < end && isFractionOrExponent(buffer.getByte(pos)))) {
+                throw error("success is not a boolean");
+            }
+            return nonZero;
+        }
+
+        private static boolean isFractionOrExponent(byte b) {
+            return b == '.' || b == 'e' || b == 'E';
+        }
+
+        /**
+         * Reads an integer or null; a number in a string is accepted like databind does.
+         */
+        Long readLong() {
+            skipWhitespace();
+            if (peek() == 'n') {
+                skipLiteral(NULL);
+                return null;
+            }
+            boolean quoted = peek() == '"';
+            if (quoted) {
+                pos++;
+            }
+            boolean negative = peek() == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < end) {
+                int digit = buffer.getByte(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    throw error("operatorId out of range");
+                }
+                value = value * 10 + digit;
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || (quoted && !skipIf('"'))) {
+                throw error("operatorId is not an integer");
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Reads a string, or null for {@code null}; other values are skipped and read as null.
+         */
+        String readString() {
+            skipWhitespace();
+            if (peek() != '"') {
+                skipValue();
+                return null;
+            }
+            int start = pos + 1;
+            boolean escaped = skipString();
+            int length = pos - 1 - start;
+            return escaped ? unescape(start, length) : buffer.toString(start, length, StandardCharsets.UTF_8);
+        }
+
+        void skipValue() {
+            skipWhitespace();
+            switch (peek()) {
+                case '"' -> skipString();
+                case '{', '[' -> skipNested();
+                case 't' -> skipLiteral(TRUE);
+                case 'f' -> skipLiteral(FALSE);
+                case 'n' -> skipLiteral(NULL);
+                default -> skipNumber();
+            }
+        }
+
+        /**
+         * Skips a string, positioned on its opening quote; returns whether it has escapes.
+         */
+        private boolean skipString() {
+            if (peek() != '"') {
+                throw error("expected a string");
+            }
+            boolean escaped = false;
+            for (pos++; pos < end; pos++) {
+                byte b = buffer.getByte(pos);
+                if (b == '\\') {
+                    escaped = true;
+                    pos++;
+                } else if (b == '"') {
+                    pos++;
+                    return escaped;
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void skipNested() {
+            int depth = 0;
+            while (pos < end) {
+                byte b = buffer.getByte(pos);
+                if (b == '"') {
+                    skipString();
+                    continue;
+                }
+                pos++;
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return;
+                }
+            }
+            throw error("unterminated object or array");
+        }
+
+        private void skipLiteral(byte[] literal) {
+            if (!matches(pos, Math.min(literal.length, end - pos), literal)) {
+                throw error("invalid literal");
+            }
+            pos += literal.length;
+        }
+
+        private void skipNumber() {
+            int start = pos;
+            while (pos < end) {
+                byte b = buffer.getByte(pos);
+                if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw error("invalid value");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                byte b = buffer.getByte(pos);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private int peek() {
+            if (pos >= end) {
+                throw error("unexpected end of input");
+            }
+            return buffer.getByte(pos);
+        }
+
+        private boolean matches(int start, int length, byte[] expected) {
+            if (length != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.getByte(start + i) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matchesIgnoreCase(int start, int length, byte[] expected) {
+            if (length != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                // expected is lower-case ASCII, so setting the case bit folds letters only
+                if ((buffer.getByte(start + i) | 0x20) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String unescape(int start, int length) {
+            String raw = buffer.toString(start, length, StandardCharsets.UTF_8);
+            StringBuilder text = new StringBuilder(raw.length());
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (c != '\\' || i + 1 >= raw.length()) {
+                    text.append(c);
+                    continue;
+                }
+                char escape = raw.charAt(++i);
+                switch (escape) {
+                    case 'b' -> text.append('\b');
+                    case 'f' -> text.append('\f');
+                    case 'n' -> text.append('\n');
+                    case 'r' -> text.append('\r');
+                    case 't' -> text.append('\t');
+                    case 'u' -> {
+                        if (i + 4 >= raw.length()) {
+                            throw error("invalid unicode escape");
+                        }
+                        try {
+                            text.append((char) Integer.parseInt(raw, i + 1, i + 5, 16));
+                        } catch (NumberFormatException e) {
+                            throw error("invalid unicode escape");
+                        }
+                        i += 4;
+                    }
+                    default -> text.append(escape);
+                }
+            }
+            return text.toString();
+        }
+
+        private DecodingException error(String reason) {
+            return new DecodingException("Invalid auth validate response: " + reason + " at offset "
+                    + (pos - buffer.readPosition()));
+        }
+    }
+}
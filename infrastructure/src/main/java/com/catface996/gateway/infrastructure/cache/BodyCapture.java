@@ -0,0 +1,65 @@
+package com.catface996.gateway.infrastructure.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Accumulates a response body on-heap while it streams to the client, giving up once the body
+ * exceeds a size limit.
+ * <p>
+ * The capture is short-lived garbage; only a body admitted to a store is copied off-heap, once,
+ * by {@link CachedResponse#offHeap()}. Allocating direct memory per miss, growth and trim would
+ * instead churn native memory and its cleaner on every uncacheable or rejected response.
+ * <p>
+ * Not thread-safe; a body is appended by a single subscriber.
+ */
+public final class BodyCapture {
+
+    private final int maxBytes;
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * @param initialCapacity expected body size (the Content-Length when known)
+     * @param maxBytes        largest body that will be captured
+     */
+    public BodyCapture(int initialCapacity, int maxBytes) {
+        this.maxBytes = maxBytes;
+        this.bytes = new byte[Math.min(Math.max(initialCapacity, 1), maxBytes)];
+    }
+
+    /**
+     * Copies the readable bytes of a body chunk without consuming them.
+     *
+     * @param dataBuffer the chunk about to be written to the client
+     */
+    public void append(DataBuffer dataBuffer) {
+        if (bytes == null) {
+            return;
+        }
+        int length = dataBuffer.readableByteCount();
+        int required = size + length;
+        if (required > maxBytes) {
+            bytes = null;
+            return;
+        }
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.min(maxBytes, Math.max(required, bytes.length * 2)));
+        }
+        dataBuffer.toByteBuffer(dataBuffer.readPosition(), ByteBuffer.wrap(bytes), size, length);
+        size = required;
+    }
+
+    /**
+     * Returns the captured body as a read-only heap buffer, or null if it was too large.
+     */
+    public ByteBuffer finish() {
+        if (bytes == null) {
+            return null;
+        }
+        // The slice's capacity is the body size, which entries are weighed by
+        return ByteBuffer.wrap(bytes, 0, size).slice().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,120 @@
+package com.catface996.gateway.infrastructure.cache;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An upstream response buffered for replay, held off-heap by the {@link ResponseCacheStore} and
+ * {@link IdempotencyStore}, or on-heap while shared between collapsed requests.
+ *
+ * @param status       the HTTP status code
+ * @param headers      the response headers to replay (read-only)
+ * @param body         the response body in a read-only buffer, direct (off-heap) once stored
+ * @param varyValues   values of the request headers named by the response's Vary header
+ * @param ttlNanos     how long the entry stays fresh
+ * @param createdNanos {@link System#nanoTime()} when the entry was stored
+ */
+public record CachedResponse(int status, HttpHeaders headers, ByteBuffer body,
+                             Map<String, List<String>> varyValues, long ttlNanos, long createdNanos) {
+
+    /**
+     * Rough per-entry overhead of headers, key and bookkeeping, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 512;
+
+    /**
+     * Response headers that describe the original connection and are not replayed.
+     */
+    private static final Set<String> CONNECTION_HEADERS = Set.of(
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            "keep-alive",
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            RouteConstants.HEADER_X_CACHE.toLowerCase(Locale.ROOT));
+
+    /**
+     * Copies the headers of a response that can be replayed to another client.
+     *
+     * @param headers the original response headers
+     * @return a read-only copy without connection-specific headers
+     */
+    public static HttpHeaders replayableHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!CONNECTION_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    /**
+     * Returns this response with its body in a direct (off-heap) buffer, copying a heap body once.
+     * Stores call this on admission, so a large store does not grow the Java heap or GC pauses.
+     *
+     * @return the response with a read-only direct body
+     */
+    public CachedResponse offHeap() {
+        if (body.isDirect()) {
+            return this;
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(body.remaining()).put(body.duplicate()).flip();
+        return new CachedResponse(status, headers, direct.asReadOnlyBuffer(), varyValues, ttlNanos, createdNanos);
+    }
+
+    /**
+     * Returns whether the entry may be served for a request, i.e. the request carries the same
+     * values for every header the response varies on.
+     *
+     * @param requestHeaders the headers of the incoming request
+     * @return true if the entry matches the request
+     */
+    public boolean matches(HttpHeaders requestHeaders) {
+        for (Map.Entry<String, List<String>> entry : varyValues.entrySet()) {
+            if (!Objects.equals(requestHeaders.get(entry.getKey()), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the status, headers and body to a client response.
+     *
+     * @param response the response to write
+     * @return completion of the write
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        ByteBuffer view = body.duplicate();
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(view.remaining());
+        // Wrapping the buffer hands the (off-heap) bytes to Netty without a copy
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(view)));
+    }
+
+    /**
+     * Returns the entry's age in whole seconds, for the Age header.
+     */
+    public long ageSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - createdNanos);
+    }
+
+    /**
+     * Returns the entry's weight for size-based eviction, dominated by the body size.
+     */
+    public int weight() {
+        return body.capacity() + ENTRY_OVERHEAD;
+    }
+}
@@ -0,0 +1,122 @@
+package com.catface996.gateway.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * Bounded local store of requests made with an Idempotency-Key and their responses.
+ * <p>
+ * An entry is created when the first request with a key starts, so duplicates arriving while it
+ * runs can wait on it, and holds the response once it completes. Entries expire after
+ * {@code gateway.idempotency.ttl-seconds}; the total size of stored bodies (kept off-heap) is
+ * bounded by {@code gateway.idempotency.max-bytes}.
+ * <p>
+ * Exports the number of entries ({@code gateway.idempotency.entries}) and bytes stored
+ * ({@code gateway.idempotency.bytes}).
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Weight of an entry whose request is still running.
+     */
+    private static final int IN_FLIGHT_WEIGHT = 256;
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.idempotency.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${gateway.idempotency.max-bytes:33554432}") long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> entry.weight + key.length())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        Gauge.builder("gateway.idempotency.entries", cache, Cache::estimatedSize)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        Gauge.builder("gateway.idempotency.bytes", this, IdempotencyStore::getWeightedSize)
+                .description("Bytes held by stored idempotent responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        log.info("Idempotency store initialized, ttl: {}s, max bytes: {}", ttlSeconds, maxBytes);
+    }
+
+    /**
+     * Registers a new request for a key unless one is already known.
+     *
+     * @param key   the scoped idempotency key
+     * @param entry the caller's new entry
+     * @return null if the caller now owns the entry, otherwise the existing entry
+     */
+    public Entry putIfAbsent(String key, Entry entry) {
+        return cache.asMap().putIfAbsent(key, entry);
+    }
+
+    /**
+     * Records the outcome of the request that owns an entry and wakes up waiting duplicates.
+     * <p>
+     * With a response, the entry is kept for replay; without one (the request failed or its
+     * response must not be replayed), the entry is removed so a retry runs again. Only the first
+     * call for an entry has an effect. A kept response's body is moved off-heap.
+     *
+     * @param key      the scoped idempotency key
+     * @param entry    the entry owned by the caller
+     * @param response the response to replay, or null
+     */
+    public void complete(String key, Entry entry, CachedResponse response) {
+        if (response == null) {
+            if (entry.response.tryEmitEmpty().isSuccess()) {
+                cache.asMap().remove(key, entry);
+            }
+        } else {
+            CachedResponse stored = response.offHeap();
+            if (entry.response.tryEmitValue(stored).isSuccess()) {
+                // Re-put so the entry is weighed by its body and its TTL starts now
+                entry.weight = stored.weight();
+                cache.asMap().replace(key, entry, entry);
+            }
+        }
+    }
+
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /**
+     * A request made with an Idempotency-Key.
+     */
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final Sinks.One<CachedResponse> response = Sinks.one();
+        private volatile int weight = IN_FLIGHT_WEIGHT;
+
+        public Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Returns the stored response once the request completes, or empty if there is none to replay.
+         */
+        public Mono<CachedResponse> response() {
+            return response.asMono();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.catface996.gateway.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store for cached GET responses.
+ * <p>
+ * Response bodies live in direct (off-heap) buffers, so a large cache does not grow the Java
+ * heap or GC pauses; only keys and headers stay on-heap. Eviction is size-aware: entries are
+ * weighed by body size and the total is bounded by {@code gateway.response-cache.max-bytes},
+ * with Caffeine's W-TinyLFU policy deciding which entries to keep. Each entry expires after its
+ * own TTL.
+ * <p>
+ * Exports the hit ratio ({@code gateway.cache.hit.ratio}), lookups by result
+ * ({@code gateway.cache.requests}), bytes and entries stored ({@code gateway.cache.bytes},
+ * {@code gateway.cache.entries}) and evictions ({@code gateway.cache.evictions}).
+ */
+@Slf4j
+@Component
+public class ResponseCacheStore {
+
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResponseCacheStore(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight() + key.length())
+                .expireAfter(new TtlExpiry())
+                .recordStats()
+                .build();
+
+        FunctionCounter.builder("gateway.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Response cache lookups")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Response cache lookups")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.hit.ratio", this, ResponseCacheStore::getHitRatio)
+                .description("Fraction of response cache lookups served from the cache")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.bytes", this, ResponseCacheStore::getWeightedSize)
+                .description("Bytes held by the response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", cache, Cache::estimatedSize)
+                .description("Responses held by the response cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.evictions", cache, c -> c.stats().evictionCount())
+                .description("Responses evicted for size or expiry")
+                .register(meterRegistry);
+        log.info("Response cache store initialized, max bytes: {}", maxBytes);
+    }
+
+    /**
+     * Looks up a fresh response for a request.
+     *
+     * @param key            the cache key
+     * @param requestHeaders the headers of the incoming request, matched against the entry's Vary
+     * @return the cached response, or null on a miss
+     */
+    public CachedResponse get(String key, HttpHeaders requestHeaders) {
+        CachedResponse response = cache.getIfPresent(key);
+        if (response != null && response.matches(requestHeaders)) {
+            hits.incrementAndGet();
+            return response;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores a response, replacing any previous entry for the key; its body is moved off-heap.
+     *
+     * @param key      the cache key
+     * @param response the response to store
+     */
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response.offHeap());
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /**
+     * Expires each entry after its own TTL; reads do not extend it.
+     */
+    private static final class TtlExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.catface996.gateway.infrastructure.compression;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of {@link StreamCompressor}s, one queue per content coding.
+ * <p>
+ * Reusing compressors avoids allocating a {@link java.util.zip.Deflater} (and its native zlib
+ * state) plus an output buffer for every compressed response. At most
+ * {@code gateway.compression.pool-size} idle compressors are kept per coding; extras are ended
+ * when returned.
+ * <p>
+ * Exports the number of idle compressors as {@code gateway.compression.pool.idle}.
+ */
+@Slf4j
+@Component
+public class CompressorPool implements DisposableBean {
+
+    private final Map<ContentCoding, Queue<StreamCompressor>> idle = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, AtomicInteger> idleCounts = new EnumMap<>(ContentCoding.class);
+    private final int level;
+    private final int bufferSize;
+    private final int maxIdle;
+
+    public CompressorPool(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.compression.level:6}") int level,
+            @Value("${gateway.compression.buffer-size:8192}") int bufferSize,
+            @Value("${gateway.compression.pool-size:64}") int maxIdle) {
+        this.level = level;
+        this.bufferSize = bufferSize;
+        this.maxIdle = maxIdle;
+        for (ContentCoding coding : ContentCoding.values()) {
+            idle.put(coding, new ConcurrentLinkedQueue<>());
+            AtomicInteger count = new AtomicInteger();
+            idleCounts.put(coding, count);
+            Gauge.builder("gateway.compression.pool.idle", count, AtomicInteger::get)
+                    .tag("encoding", coding.getToken())
+                    .description("Idle pooled response compressors")
+                    .register(meterRegistry);
+        }
+        log.info("Compressor pool initialized, level: {}, buffer size: {}, max idle: {}", level, bufferSize, maxIdle);
+    }
+
+    /**
+     * Takes an idle compressor, or creates one if none is available.
+     *
+     * @param coding the content coding to produce
+     * @return a compressor ready for a new stream
+     */
+    public StreamCompressor borrow(ContentCoding coding) {
+        StreamCompressor compressor = idle.get(coding).poll();
+        if (compressor == null) {
+            return new StreamCompressor(coding, level, bufferSize);
+        }
+        idleCounts.get(coding).decrementAndGet();
+        return compressor;
+    }
+
+    /**
+     * Returns a compressor after its response is complete or cancelled.
+     *
+     * @param compressor the compressor to reuse
+     */
+    public void release(StreamCompressor compressor) {
+        ContentCoding coding = compressor.getCoding();
+        if (idleCounts.get(coding).incrementAndGet() > maxIdle) {
+            idleCounts.get(coding).decrementAndGet();
+            compressor.end();
+            return;
+        }
+        compressor.reset();
+        idle.get(coding).offer(compressor);
+    }
+
+    /**
+     * Drops a compressor whose state is unknown, e.g. after its response was cancelled mid-stream.
+     *
+     * @param compressor the compressor to end
+     */
+    public void discard(StreamCompressor compressor) {
+        compressor.end();
+    }
+
+    @Override
+    public void destroy() {
+        idle.values().forEach(queue -> {
+            StreamCompressor compressor;
+            while ((compressor = queue.poll()) != null) {
+                compressor.end();
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.catface996.gateway.infrastructure.compression;
+
+/**
+ * Response content codings the gateway can apply.
+ */
+public enum ContentCoding {
+
+    /**
+     * gzip (RFC 1952): raw deflate stream with a gzip header and CRC32/size trailer
+     */
+    GZIP("gzip"),
+
+    /**
+     * deflate (RFC 1950): deflate stream in the zlib format
+     */
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the token used in Accept-Encoding and Content-Encoding headers.
+     */
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,137 @@
+package com.catface996.gateway.infrastructure.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Incremental gzip/deflate compressor over {@link DataBuffer}s.
+ * <p>
+ * Instances are expensive to create (the {@link Deflater} allocates native memory), so they are
+ * borrowed from the {@link CompressorPool} for one response and returned afterwards. Not
+ * thread-safe; a response body is compressed by a single subscriber.
+ */
+public final class StreamCompressor {
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final ContentCoding coding;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch;
+    private boolean started;
+
+    StreamCompressor(ContentCoding coding, int level, int bufferSize) {
+        this.coding = coding;
+        this.deflater = new Deflater(level, coding == ContentCoding.GZIP);
+        this.scratch = new byte[bufferSize];
+    }
+
+    public ContentCoding getCoding() {
+        return coding;
+    }
+
+    /**
+     * Compresses a chunk of the body. The input buffer is left for the caller to release.
+     *
+     * @param input   the next chunk of the original body
+     * @param factory factory for the output buffer
+     * @return the compressed bytes available so far, possibly empty
+     */
+    public DataBuffer compress(DataBuffer input, DataBufferFactory factory) {
+        DataBuffer output = factory.allocateBuffer(scratch.length);
+        writeHeader(output);
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer chunk = buffers.next();
+                if (coding == ContentCoding.GZIP) {
+                    crc.update(chunk.duplicate());
+                }
+                deflater.setInput(chunk);
+                while (!deflater.needsInput()) {
+                    drain(output, Deflater.NO_FLUSH);
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Completes the stream.
+     *
+     * @param factory factory for the output buffer
+     * @return the remaining compressed bytes and, for gzip, the trailer
+     */
+    public DataBuffer finish(DataBufferFactory factory) {
+        DataBuffer output = factory.allocateBuffer(scratch.length);
+        writeHeader(output);
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(output, Deflater.NO_FLUSH);
+        }
+        if (coding == ContentCoding.GZIP) {
+            writeIntLittleEndian(output, (int) crc.getValue());
+            writeIntLittleEndian(output, (int) deflater.getBytesRead());
+        }
+        return output;
+    }
+
+    /**
+     * Returns the number of uncompressed bytes consumed so far.
+     */
+    public long getBytesRead() {
+        return deflater.getBytesRead();
+    }
+
+    /**
+     * Returns the number of compressed bytes produced so far, including gzip framing once finished.
+     */
+    public long getBytesWritten() {
+        long framing = coding == ContentCoding.GZIP
+                ? GZIP_HEADER.length + (deflater.finished() ? GZIP_TRAILER_LENGTH : 0)
+                : 0;
+        return deflater.getBytesWritten() + framing;
+    }
+
+    /**
+     * Prepares the compressor for the next response.
+     */
+    void reset() {
+        deflater.reset();
+        crc.reset();
+        started = false;
+    }
+
+    /**
+     * Releases the native memory of the deflater; the instance cannot be used afterwards.
+     */
+    void end() {
+        deflater.end();
+    }
+
+    private void drain(DataBuffer output, int flush) {
+        int length = deflater.deflate(scratch, 0, scratch.length, flush);
+        if (length > 0) {
+            output.write(scratch, 0, length);
+        }
+    }
+
+    private void writeHeader(DataBuffer output) {
+        if (!started) {
+            started = true;
+            if (coding == ContentCoding.GZIP) {
+                output.write(GZIP_HEADER);
+            }
+        }
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write(new byte[]{(byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24)});
+    }
+}
@@ -1,30 +1,33 @@
 package com.catface996.gateway.infrastructure.config;
 
-import com.catface996.gateway.common.dto.ErrorResponse;
+import com.catface996.gateway.common.constants.RouteConstants;
 import com.catface996.gateway.common.enums.ErrorCode;
 import com.catface996.gateway.common.exception.AuthenticationException;
 import com.catface996.gateway.common.exception.GatewayException;
+import com.catface996.gateway.common.exception.RateLimitExceededException;
 import com.catface996.gateway.common.exception.ServiceUnavailableException;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.catface996.gateway.infrastructure.error.ErrorLogThrottle;
+import com.catface996.gateway.infrastructure.error.ErrorResponseWriter;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-
 /**
  * Global exception handler for the gateway.
  * Converts exceptions to standardized error responses.
+ * <p>
+ * Responses are written by {@link ErrorResponseWriter} from pre-encoded templates, and logging goes
+ * through {@link ErrorLogThrottle}, so a storm of one error (401s from an auth outage, 503s from
+ * load shedding) logs once per interval with a count instead of once per request. Backend errors
+ * are throttled per error code and backend.
  */
 @Slf4j
 @Component
@@ -32,75 +35,88 @@ import java.nio.charset.StandardCharsets;
 @RequiredArgsConstructor
 public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
 
-    private final ObjectMapper objectMapper;
+    private static final String UNEXPECTED_ERROR_MESSAGE = "An unexpected error occurred";
+
+    private final ErrorResponseWriter errorResponseWriter;
+    private final ErrorLogThrottle errorLogThrottle;
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
         ServerHttpResponse response = exchange.getResponse();
         String path = exchange.getRequest().getPath().value();
 
-        ErrorResponse errorResponse;
         HttpStatus status;
+        String code;
+        String message;
 
         if (ex instanceof AuthenticationException authEx) {
             status = HttpStatus.UNAUTHORIZED;
-            errorResponse = ErrorResponse.of(
-                    authEx.getCode(),
-                    authEx.getMessage(),
-                    path
-            );
-            log.warn("Authentication failed for path {}: {}", path, authEx.getMessage());
+            code = authEx.getCode();
+            message = authEx.getMessage();
+            long suppressed = errorLogThrottle.acquire(code);
+            if (suppressed >= 0) {
+                log.warn("Authentication failed for path {}: {}{}", path, message, ErrorLogThrottle.suppressed(suppressed));
+            }
 
         } else if (ex instanceof ServiceUnavailableException svcEx) {
             status = HttpStatus.SERVICE_UNAVAILABLE;
-            errorResponse = ErrorResponse.of(
-                    svcEx.getCode(),
-                    svcEx.getMessage(),
-                    path
-            );
-            log.error("Service unavailable for path {}: {}", path, svcEx.getMessage());
+            code = svcEx.getCode();
+            message = svcEx.getMessage();
+            String backendId = RouteMetadataUtils.getBackendId(exchange);
+            long suppressed = errorLogThrottle.acquire(throttleKey(code, backendId));
+            if (suppressed >= 0) {
+                log.error("Service unavailable for path {} (backend {}): {}{}", path, backendId, message,
+                        ErrorLogThrottle.suppressed(suppressed));
+            }
+
+        } else if (ex instanceof RateLimitExceededException rateLimitEx) {
+            status = HttpStatus.TOO_MANY_REQUESTS;
+            code = rateLimitEx.getCode();
+            message = rateLimitEx.getMessage();
+            response.getHeaders().set(RouteConstants.HEADER_RETRY_AFTER,
+                    String.valueOf(rateLimitEx.getRetryAfterSeconds()));
+            log.debug("Rate limit exceeded for path {}: {}", path, message);
 
         } else if (ex instanceof GatewayException gatewayEx) {
             status = HttpStatus.valueOf(gatewayEx.getHttpStatus());
-            errorResponse = ErrorResponse.of(
-                    gatewayEx.getCode(),
-                    gatewayEx.getMessage(),
-                    path
-            );
-            log.warn("Gateway error for path {}: {}", path, gatewayEx.getMessage());
+            code = gatewayEx.getCode();
+            message = gatewayEx.getMessage();
+            String backendId = RouteMetadataUtils.getBackendId(exchange);
+            long suppressed = errorLogThrottle.acquire(throttleKey(code, backendId));
+            if (suppressed >= 0) {
+                log.warn("Gateway error for path {} (backend {}): {}{}", path, backendId, message,
+                        ErrorLogThrottle.suppressed(suppressed));
+            }
 
         } else if (ex instanceof ResponseStatusException rse) {
             status = HttpStatus.valueOf(rse.getStatusCode().value());
-            errorResponse = ErrorResponse.of(
-                    status.name(),
-                    rse.getReason() != null ? rse.getReason() : status.getReasonPhrase(),
-                    path
-            );
-            log.warn("Response status exception for path {}: {}", path, rse.getMessage());
+            code = status.name();
+            message = rse.getReason() != null ? rse.getReason() : status.getReasonPhrase();
+            long suppressed = errorLogThrottle.acquire(status);
+            if (suppressed >= 0) {
+                log.warn("Response status exception for path {}: {}{}", path, rse.getMessage(),
+                        ErrorLogThrottle.suppressed(suppressed));
+            }
 
         } else {
             status = HttpStatus.INTERNAL_SERVER_ERROR;
-            errorResponse = ErrorResponse.of(
-                    ErrorCode.INTERNAL_ERROR.getCode(),
-                    "An unexpected error occurred",
-                    path
-            );
-            log.error("Unexpected error for path {}", path, ex);
+            code = ErrorCode.INTERNAL_ERROR.getCode();
+            message = UNEXPECTED_ERROR_MESSAGE;
+            // The stack trace only with the first error of its type per interval
+            long suppressed = errorLogThrottle.acquire(ex.getClass());
+            if (suppressed >= 0) {
+                log.error("Unexpected error for path {}{}", path, ErrorLogThrottle.suppressed(suppressed), ex);
+            }
         }
 
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return errorResponseWriter.write(exchange, status, code, message);
+    }
 
-        try {
-            byte[] bytes = objectMapper.writeValueAsBytes(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize error response", e);
-            byte[] fallback = "{\"code\":\"INTERNAL_ERROR\",\"message\":\"Error processing response\"}"
-                    .getBytes(StandardCharsets.UTF_8);
-            DataBuffer buffer = response.bufferFactory().wrap(fallback);
-            return response.writeWith(Mono.just(buffer));
-        }
+    /**
+     * Keys backend errors by code and backend, so an outage of one backend does not hide the first
+     * errors of another behind its suppressed count.
+     */
+    private static String throttleKey(String code, String backendId) {
+        return code + ' ' + backendId;
     }
 }
@@ -0,0 +1,80 @@
+package com.catface996.gateway.infrastructure.config;
+
+import com.catface996.gateway.common.exception.LoadSheddingException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for backend resilience components.
+ * <p>
+ * Provides the circuit breaker registry used by {@code CircuitBreakerFilter}. One circuit breaker
+ * is created lazily per backend service, all sharing the sliding-window settings below.
+ * Requests shed by the gateway ({@link LoadSheddingException}) are not recorded as failures.
+ */
+@Slf4j
+@Configuration
+public class ResilienceConfig {
+
+    @Value("${gateway.circuit-breaker.sliding-window-type:COUNT_BASED}")
+    private CircuitBreakerConfig.SlidingWindowType slidingWindowType;
+
+    @Value("${gateway.circuit-breaker.sliding-window-size:50}")
+    private int slidingWindowSize;
+
+    @Value("${gateway.circuit-breaker.minimum-number-of-calls:20}")
+    private int minimumNumberOfCalls;
+
+    @Value("${gateway.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${gateway.circuit-breaker.slow-call-rate-threshold:80}")
+    private float slowCallRateThreshold;
+
+    @Value("${gateway.circuit-breaker.slow-call-duration-ms:5000}")
+    private long slowCallDurationMs;
+
+    @Value("${gateway.circuit-breaker.wait-duration-in-open-state-ms:10000}")
+    private long waitDurationInOpenStateMs;
+
+    @Value("${gateway.circuit-breaker.permitted-calls-in-half-open-state:5}")
+    private int permittedCallsInHalfOpenState;
+
+    /**
+     * Creates the circuit breaker registry and binds its metrics to Micrometer.
+     *
+     * @param meterRegistry the meter registry for circuit breaker state and call metrics
+     * @return CircuitBreakerRegistry with the gateway default configuration
+     */
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(slidingWindowType)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .waitDurationInOpenState(Duration.ofMillis(waitDurationInOpenStateMs))
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                // Requests the gateway sheds itself say nothing about the backend's health
+                .ignoreExceptions(LoadSheddingException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.getEventPublisher().onEntryAdded(event -> event.getAddedEntry().getEventPublisher()
+                .onStateTransition(transition -> log.warn("Circuit breaker {} transitioned {}",
+                        transition.getCircuitBreakerName(), transition.getStateTransition())));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
@@ -0,0 +1,67 @@
+package com.catface996.gateway.infrastructure.config;
+
+import com.catface996.gateway.infrastructure.support.TrustedProxies;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Configuration for the gateway's inbound Netty server.
+ * <p>
+ * HTTP/2 itself is switched on with {@code server.http2.enabled}: Spring Boot then serves h2c
+ * (prior knowledge or upgrade) next to HTTP/1.1 in cleartext, and h2 via TLS ALPN once
+ * {@code server.ssl} is configured. This configuration limits how many requests a single
+ * client connection may multiplex, and decides whose forwarding headers name the client.
+ */
+@Slf4j
+@Configuration
+public class ServerConfig {
+
+    @Value("${gateway.server.max-concurrent-streams:128}")
+    private long maxConcurrentStreams;
+
+    @Value("${gateway.server.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    /**
+     * Caps the concurrent HTTP/2 streams per inbound connection.
+     *
+     * @return the Netty server customizer
+     */
+    @Bean
+    public NettyServerCustomizer http2SettingsCustomizer() {
+        log.info("Inbound HTTP/2 max concurrent streams per connection: {}", maxConcurrentStreams);
+        return httpServer -> httpServer.http2Settings(settings -> settings.maxConcurrentStreams(maxConcurrentStreams));
+    }
+
+    /**
+     * Resolves the client address of requests from trusted proxies out of their X-Forwarded-For
+     * (or X-Real-IP) header; every other request keeps its connection's peer address, whatever
+     * headers it carries. Per-client rate limits, fairness lanes and cache keys build on this address.
+     *
+     * @return the Netty server customizer
+     */
+    @Bean
+    public NettyServerCustomizer trustedProxyCustomizer() {
+        TrustedProxies proxies = TrustedProxies.of(trustedProxies);
+        if (proxies.isEmpty()) {
+            log.info("No trusted proxies configured, forwarding headers are ignored");
+            return httpServer -> httpServer;
+        }
+        log.info("Trusted proxies: {}", trustedProxies);
+        return httpServer -> httpServer.forwarded((info, request) -> {
+            InetSocketAddress peer = info.getRemoteAddress();
+            if (peer == null || !proxies.contains(peer.getAddress())) {
+                return info;
+            }
+            InetAddress client = proxies.resolveForwardedClient(request.headers());
+            return client != null ? info.withRemoteAddress(new InetSocketAddress(client, peer.getPort())) : info;
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.catface996.gateway.infrastructure.config;
+
+import com.catface996.gateway.infrastructure.observability.TailSamplingSpanProcessor;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the span processors behind the OpenTelemetry tracer.
+ * <p>
+ * Spring Boot hands every ended span to all {@link SpanProcessor} beans, including its own batch
+ * processor that exports each one. With tail sampling enabled the {@link TailSamplingSpanProcessor}
+ * is the only processor, so spans are exported once a trace is kept and not before; otherwise
+ * Boot's processors are used as they are.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Selects the span processors of the tracer provider.
+     *
+     * @param tailSamplingSpanProcessor the tail sampler
+     * @param spanProcessors            all span processor beans
+     * @return the processors the tracer provider runs
+     */
+    @Bean
+    public SpanProcessors spanProcessors(TailSamplingSpanProcessor tailSamplingSpanProcessor,
+                                         ObjectProvider<SpanProcessor> spanProcessors) {
+        if (tailSamplingSpanProcessor.isEnabled()) {
+            return SpanProcessors.of(tailSamplingSpanProcessor);
+        }
+        return SpanProcessors.of(spanProcessors.orderedStream()
+                .filter(processor -> processor != tailSamplingSpanProcessor)
+                .toList());
+    }
+}
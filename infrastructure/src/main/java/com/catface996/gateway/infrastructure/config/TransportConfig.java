@@ -0,0 +1,198 @@
+package com.catface996.gateway.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.netty4.NettyAllocatorMetrics;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.socket.nio.NioChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.net.StandardSocketOptions;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Configuration of the Netty transport shared by the inbound server and all backend clients.
+ * <p>
+ * {@code gateway.transport.type} selects the transport: {@code native} (epoll on Linux, kqueue on
+ * macOS), {@code nio}, or {@code auto} (native where available, NIO otherwise). The gateway runs on
+ * one set of event loops, {@code gateway.transport.event-loop-threads} or, when that is 0,
+ * {@code gateway.transport.event-loops-per-core} per available core (the container's CPU limit).
+ * Server and backend connections are colocated on these loops, so a proxied request normally stays
+ * on one thread from accept to response.
+ * <p>
+ * Buffers come from a pooled allocator with one heap and one direct arena per event loop, which
+ * keeps loops from contending on arenas; only event loop threads keep thread-local buffer caches.
+ * Its memory use is exported as {@code netty.allocator.*}.
+ * <p>
+ * With {@code gateway.transport.reuse-port}, the server socket is bound with SO_REUSEPORT, so
+ * several gateway processes on one host can listen on the same port, with the kernel spreading
+ * new connections across their accept queues.
+ */
+@Slf4j
+@Configuration
+public class TransportConfig {
+
+    private static final String LOOP_PREFIX = "reactor-http";
+
+    @Value("${gateway.transport.type:auto}")
+    private String type;
+
+    @Value("${gateway.transport.event-loop-threads:0}")
+    private int eventLoopThreads;
+
+    @Value("${gateway.transport.event-loops-per-core:1.0}")
+    private double eventLoopsPerCore;
+
+    @Value("${gateway.transport.reuse-port:false}")
+    private boolean reusePort;
+
+    @Value("${gateway.transport.allocator.arenas:0}")
+    private int arenas;
+
+    /**
+     * Installs the gateway's event loops as Reactor Netty's global resources, which the server,
+     * Spring Cloud Gateway's clients and the WebClient all run on.
+     *
+     * @return the resource factory handing the global resources to the server
+     */
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory() {
+        boolean useNative = useNative();
+        int threads = eventLoopThreads();
+        HttpResources.set(new TransportLoopResources(LoopResources.create(LOOP_PREFIX, threads, true), useNative));
+        log.info("Netty transport: {} ({} event loops on {} cores)", useNative ? nativeTransportName() : "nio",
+                threads, Runtime.getRuntime().availableProcessors());
+        return new ReactorResourceFactory();
+    }
+
+    /**
+     * Pooled allocator used for server and backend connections.
+     *
+     * @return the allocator
+     */
+    @Bean
+    public ByteBufAllocator gatewayByteBufAllocator(MeterRegistry meterRegistry) {
+        int arenaCount = arenas > 0 ? arenas : eventLoopThreads();
+        PooledByteBufAllocator allocator = new PooledByteBufAllocator(true, arenaCount, arenaCount,
+                PooledByteBufAllocator.defaultPageSize(), PooledByteBufAllocator.defaultMaxOrder(),
+                PooledByteBufAllocator.defaultSmallCacheSize(), PooledByteBufAllocator.defaultNormalCacheSize(),
+                false);
+        new NettyAllocatorMetrics(allocator).bindTo(meterRegistry);
+        log.info("Pooled buffer allocator: {} heap and {} direct arenas, chunk size {}KB", arenaCount, arenaCount,
+                allocator.metric().chunkSize() / 1024);
+        return allocator;
+    }
+
+    /**
+     * Applies the allocator and SO_REUSEPORT to the inbound server.
+     *
+     * @return the Netty server customizer
+     */
+    @Bean
+    public NettyServerCustomizer transportCustomizer(ByteBufAllocator gatewayByteBufAllocator) {
+        boolean epoll = useNative() && Epoll.isAvailable();
+        return httpServer -> {
+            var server = httpServer.childOption(ChannelOption.ALLOCATOR, gatewayByteBufAllocator);
+            if (reusePort) {
+                server = epoll
+                        ? server.option(EpollChannelOption.SO_REUSEPORT, true)
+                        : server.option(NioChannelOption.of(StandardSocketOptions.SO_REUSEPORT), true);
+                log.info("Inbound server socket bound with SO_REUSEPORT");
+            }
+            return server;
+        };
+    }
+
+    private boolean useNative() {
+        return switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case "nio" -> false;
+            case "native", "epoll" -> {
+                if (!LoopResources.hasNativeSupport()) {
+                    throw new IllegalStateException("Native Netty transport requested but not available on this platform");
+                }
+                yield true;
+            }
+            case "auto" -> LoopResources.hasNativeSupport();
+            default -> throw new IllegalArgumentException("Unknown gateway.transport.type: " + type);
+        };
+    }
+
+    private int eventLoopThreads() {
+        if (eventLoopThreads > 0) {
+            return eventLoopThreads;
+        }
+        return Math.max(1, (int) Math.round(Runtime.getRuntime().availableProcessors() * eventLoopsPerCore));
+    }
+
+    private static String nativeTransportName() {
+        return Epoll.isAvailable() ? "epoll" : "native";
+    }
+
+    /**
+     * Loop resources that use the configured transport whatever their callers prefer; Reactor Netty
+     * otherwise picks native or NIO per server and client from a JVM-wide system property.
+     */
+    private static final class TransportLoopResources implements LoopResources {
+
+        private final LoopResources delegate;
+        private final boolean useNative;
+
+        private TransportLoopResources(LoopResources delegate, boolean useNative) {
+            this.delegate = delegate;
+            this.useNative = useNative;
+        }
+
+        @Override
+        public EventLoopGroup onServer(boolean preferNative) {
+            return delegate.onServer(useNative);
+        }
+
+        @Override
+        public EventLoopGroup onServerSelect(boolean preferNative) {
+            return delegate.onServerSelect(useNative);
+        }
+
+        @Override
+        public EventLoopGroup onClient(boolean preferNative) {
+            return delegate.onClient(useNative);
+        }
+
+        @Override
+        public boolean daemon() {
+            return delegate.daemon();
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return delegate.disposeLater();
+        }
+
+        @Override
+        public Mono<Void> disposeLater(Duration quietPeriod, Duration timeout) {
+            return delegate.disposeLater(quietPeriod, timeout);
+        }
+    }
+}
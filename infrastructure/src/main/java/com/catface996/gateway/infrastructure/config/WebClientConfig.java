@@ -1,6 +1,9 @@
 package com.catface996.gateway.infrastructure.config;
 
+import com.catface996.gateway.infrastructure.upstream.UpstreamProtocol;
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,7 +17,8 @@ import java.time.Duration;
  * Configuration for WebClient used by infrastructure components.
  * <p>
  * Provides a pre-configured WebClient for making HTTP calls to backend services
- * such as the auth service for token validation.
+ * such as the auth service for token validation. Calls are observed, so each one is traced as a
+ * child span of the request and carries the W3C {@code traceparent} header to the service.
  */
 @Configuration
 public class WebClientConfig {
@@ -25,19 +29,26 @@ public class WebClientConfig {
     @Value("${gateway.webclient.response-timeout-ms:10000}")
     private int responseTimeoutMs;
 
+    @Value("${gateway.webclient.protocol:http1.1}")
+    private String protocol;
+
     /**
-     * Creates a WebClient with connection and response timeout settings.
+     * Creates a WebClient with connection and response timeout settings, speaking the configured
+     * protocol ("http1.1", "h2" or "h2c", see {@link UpstreamProtocol}).
      *
+     * @param observationRegistry the registry observing (and tracing) the calls
      * @return configured WebClient.Builder
      */
     @Bean
-    public WebClient.Builder webClientBuilder() {
+    public WebClient.Builder webClientBuilder(ObjectProvider<ObservationRegistry> observationRegistry) {
         HttpClient httpClient = HttpClient.create()
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
-                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .protocol(UpstreamProtocol.of(protocol).getHttpProtocols());
 
         return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient));
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.catface996.gateway.infrastructure.error;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits and aggregates error logging during error storms.
+ * <p>
+ * Errors are grouped by a caller-chosen key - an error code, a code and backend, an exception
+ * class - and each key may log once per {@code gateway.errors.log.interval-ms}. Callers ask
+ * {@link #acquire} before logging: the first error of a key logs, the ones after it within the
+ * interval are only counted, and the next error that logs reports how many were suppressed. Counts
+ * left over when a storm ends are logged by a periodic flush, which also drops keys that have gone
+ * quiet. Under a 401 or 503 storm this turns thousands of log lines (and stack traces) per second
+ * into one per key and interval.
+ * <p>
+ * At most {@code gateway.errors.log.max-keys} keys are tracked; errors of further keys share one
+ * overflow key.
+ */
+@Slf4j
+@Component
+public class ErrorLogThrottle implements DisposableBean {
+
+    private static final String OVERFLOW_KEY = "other";
+
+    private final ConcurrentHashMap<Object, Window> windows = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final int maxKeys;
+    private final Disposable flushTask;
+
+    public ErrorLogThrottle(
+            @Value("${gateway.errors.log.enabled:true}") boolean enabled,
+            @Value("${gateway.errors.log.interval-ms:10000}") long intervalMs,
+            @Value("${gateway.errors.log.max-keys:1024}") int maxKeys) {
+        this.enabled = enabled && intervalMs > 0;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.maxKeys = maxKeys;
+        this.flushTask = this.enabled
+                ? Schedulers.parallel().schedulePeriodically(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS)
+                : null;
+        log.info("Error log throttle initialized, enabled: {}, interval: {}ms, max keys: {}",
+                this.enabled, intervalMs, maxKeys);
+    }
+
+    /**
+     * Decides whether an error of the given key should be logged.
+     *
+     * @param key the error's key; compared with equals, so constants and classes work best
+     * @return -1 to suppress the error, otherwise the number of errors of the key suppressed since
+     * it last logged (0 when disabled)
+     */
+    public long acquire(Object key) {
+        if (!enabled) {
+            return 0;
+        }
+        Window window = windows.get(key);
+        if (window == null) {
+            Object windowKey = windows.size() < maxKeys ? key : OVERFLOW_KEY;
+            window = windows.computeIfAbsent(windowKey, k -> new Window());
+        }
+        return window.acquire(System.nanoTime(), intervalNanos);
+    }
+
+    /**
+     * Formats a suppressed count returned by {@link #acquire} as a suffix for the log message.
+     *
+     * @param suppressed the suppressed count
+     * @return an empty string if none were suppressed
+     */
+    public static String suppressed(long suppressed) {
+        return suppressed > 0 ? " (" + suppressed + " similar suppressed)" : "";
+    }
+
+    /**
+     * Logs counts of errors suppressed since their key last logged, once the key's interval has
+     * passed without an error that would report them, and drops keys idle for a whole interval.
+     */
+    private void flush() {
+        long now = System.nanoTime();
+        for (Map.Entry<Object, Window> entry : windows.entrySet()) {
+            Window window = entry.getValue();
+            long suppressed = window.drain(now, intervalNanos);
+            if (suppressed > 0) {
+                log.warn("{} more '{}' errors suppressed in the last {}s", suppressed, describe(entry.getKey()),
+                        TimeUnit.NANOSECONDS.toSeconds(intervalNanos));
+            } else if (suppressed == 0 && now - window.lastLogNanos() > 2 * intervalNanos) {
+                windows.remove(entry.getKey(), window);
+            }
+        }
+    }
+
+    private static String describe(Object key) {
+        return key instanceof Class<?> type ? type.getName() : String.valueOf(key);
+    }
+
+    @Override
+    public void destroy() {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+    }
+
+    /**
+     * Logging state of one key.
+     */
+    private static final class Window {
+
+        /**
+         * When the key last logged; starts far enough in the past for the first error to log.
+         */
+        private final AtomicLong lastLog = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+        private final AtomicLong suppressed = new AtomicLong();
+
+        long acquire(long now, long interval) {
+            long last = lastLog.get();
+            if (now - last >= interval && lastLog.compareAndSet(last, now)) {
+                return suppressed.getAndSet(0);
+            }
+            suppressed.incrementAndGet();
+            return -1;
+        }
+
+        /**
+         * Takes the suppressed count if the interval has passed since the key last logged,
+         * counting the flush as a log; returns -1 if it has not.
+         */
+        long drain(long now, long interval) {
+            long last = lastLog.get();
+            if (now - last < interval) {
+                return -1;
+            }
+            if (suppressed.get() == 0) {
+                return 0;
+            }
+            return lastLog.compareAndSet(last, now) ? suppressed.getAndSet(0) : -1;
+        }
+
+        long lastLogNanos() {
+            return lastLog.get();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.catface996.gateway.infrastructure.error;
+
+import com.catface996.gateway.common.enums.ErrorCode;
+import com.catface996.gateway.infrastructure.support.CachedClock;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes gateway error responses from pre-encoded templates.
+ * <p>
+ * The body is the JSON of {@code ErrorResponse}: {@code code}, {@code message}, {@code path} and
+ * {@code timestamp}, in that order. Code and message take one of a few dozen values, so everything
+ * up to the path is encoded once per (code, message) pair - for every {@link ErrorCode} with its
+ * default message at startup, for other pairs on first use - and a response only splices the
+ * request path and the {@link CachedClock cached} timestamp into a pooled buffer. Building an
+ * {@code ErrorResponse}, {@code LocalDateTime.now()} and a databind round per response, which
+ * dominate the cost of an error storm, are avoided.
+ * <p>
+ * At most {@code gateway.errors.max-templates} pairs are cached; beyond that (messages that carry
+ * request data) the head is encoded per response.
+ */
+@Slf4j
+@Component
+public class ErrorResponseWriter {
+
+    private static final byte[] CODE_PREFIX = ascii("{\"code\":\"");
+    private static final byte[] MESSAGE_PREFIX = ascii("\",\"message\":\"");
+    private static final byte[] PATH_PREFIX = ascii("\",\"path\":\"");
+    private static final byte[] TIMESTAMP_PREFIX = ascii("\",\"timestamp\":\"");
+    private static final byte[] SUFFIX = ascii("\"}");
+
+    private final ConcurrentMap<String, ConcurrentMap<String, byte[]>> templates = new ConcurrentHashMap<>();
+    private final AtomicInteger templateCount = new AtomicInteger();
+    private final int maxTemplates;
+
+    public ErrorResponseWriter(@Value("${gateway.errors.max-templates:512}") int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            head(errorCode.getCode(), errorCode.getDefaultMessage());
+        }
+        log.info("Error response writer initialized, max templates: {}, pre-encoded: {}",
+                maxTemplates, templateCount.get());
+    }
+
+    /**
+     * Writes an error response with the error code's default message.
+     *
+     * @param exchange  the exchange
+     * @param errorCode the error code
+     * @return completion of the response
+     */
+    public Mono<Void> write(ServerWebExchange exchange, ErrorCode errorCode) {
+        return write(exchange, HttpStatusCode.valueOf(errorCode.getHttpStatus()), errorCode.getCode(),
+                errorCode.getDefaultMessage());
+    }
+
+    /**
+     * Writes an error response.
+     *
+     * @param exchange the exchange
+     * @param status   the response status
+     * @param code     the error code
+     * @param message  the error message, null for an empty one
+     * @return completion of the response
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatusCode status, String code, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(encode(response, code, message, exchange.getRequest().getPath().value())));
+    }
+
+    private DataBuffer encode(ServerHttpResponse response, String code, String message, String path) {
+        byte[] head = head(code, message);
+        byte[] timestamp = CachedClock.localDateTimeBytes();
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(head.length + path.length()
+                + TIMESTAMP_PREFIX.length + timestamp.length + SUFFIX.length);
+        buffer.write(head);
+        if (needsEscaping(path)) {
+            buffer.write(JsonStringEncoder.getInstance().quoteAsUTF8(path));
+        } else {
+            buffer.write(path, StandardCharsets.UTF_8);
+        }
+        buffer.write(TIMESTAMP_PREFIX);
+        buffer.write(timestamp);
+        buffer.write(SUFFIX);
+        return buffer;
+    }
+
+    /**
+     * Returns the encoded body up to and including the opening quote of the path.
+     */
+    private byte[] head(String code, String message) {
+        String text = message != null ? message : "";
+        ConcurrentMap<String, byte[]> byMessage = templates.get(code);
+        byte[] head = byMessage != null ? byMessage.get(text) : null;
+        if (head != null) {
+            return head;
+        }
+        head = encodeHead(code, text);
+        if (templateCount.get() < maxTemplates) {
+            if (templates.computeIfAbsent(code, c -> new ConcurrentHashMap<>()).putIfAbsent(text, head) == null) {
+                templateCount.incrementAndGet();
+            }
+        }
+        return head;
+    }
+
+    private static byte[] encodeHead(String code, String message) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        byte[] encodedCode = encoder.quoteAsUTF8(code);
+        byte[] encodedMessage = encoder.quoteAsUTF8(message);
+        byte[] head = new byte[CODE_PREFIX.length + encodedCode.length + MESSAGE_PREFIX.length
+                + encodedMessage.length + PATH_PREFIX.length];
+        int offset = 0;
+        for (byte[] part : new byte[][]{CODE_PREFIX, encodedCode, MESSAGE_PREFIX, encodedMessage, PATH_PREFIX}) {
+            System.arraycopy(part, 0, head, offset, part.length);
+            offset += part.length;
+        }
+        return head;
+    }
+
+    /**
+     * Returns whether the string has characters JSON strings must escape. Request paths are
+     * percent-encoded, so this is almost never the case.
+     */
+    private static boolean needsEscaping(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,6 +1,13 @@
 package com.catface996.gateway.infrastructure.filter;
 
 import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.observability.RequestTimeline;
+import com.catface996.gateway.infrastructure.observability.SlowRequest;
+import com.catface996.gateway.infrastructure.observability.SlowRequestLog;
+import com.catface996.gateway.infrastructure.support.ClientIpUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import com.catface996.gateway.infrastructure.support.TraceContextUtils;
+import com.catface996.gateway.infrastructure.warmup.WarmupRouteLocator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -18,6 +25,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Global filter that logs access information for all requests.
@@ -25,11 +33,20 @@ import java.util.UUID;
  * Logs the following information:
  * <ul>
  *     <li>Request ID (generated or from header)</li>
+ *     <li>W3C trace ID, continued from the client's {@code traceparent} or started by the gateway</li>
  *     <li>HTTP method and path</li>
  *     <li>Target route/service</li>
  *     <li>Response status code</li>
  *     <li>Request duration in milliseconds</li>
+ *     <li>Time to first byte for streamed responses</li>
  * </ul>
+ * <p>
+ * It also starts each request's {@link RequestTimeline}. Requests slower than
+ * {@code gateway.slow-request.threshold-ms} get one more line with their time per phase (auth,
+ * body rewrite, upstream connection acquire, upstream time to first byte, response write) and are
+ * kept in the {@link SlowRequestLog}.
+ * <p>
+ * Warm-up requests ({@link WarmupRouteLocator}) are neither logged nor timed.
  */
 @Slf4j
 @Component
@@ -40,9 +57,21 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
      */
     public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
 
+    private final SlowRequestLog slowRequestLog;
+
+    public AccessLogFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (WarmupRouteLocator.ROUTE_ID.equals(getRouteId(exchange))) {
+            // Synthetic warm-up traffic is summarized by JitWarmupRunner, not logged per request
+            return chain.filter(exchange);
+        }
+
         Instant startTime = Instant.now();
+        long startNanos = System.nanoTime();
         ServerHttpRequest request = exchange.getRequest();
 
         // Get or generate request ID
@@ -63,15 +92,36 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
 
         String method = request.getMethod().name();
         String path = request.getURI().getPath();
-        String clientIp = getClientIp(request);
+        String clientIp = ClientIpUtils.getClientIp(request);
+        String traceId = TraceContextUtils.getTraceId(exchange);
 
-        log.info("[{}] --> {} {} from {}", requestId, method, path, clientIp);
+        log.info("[{}] --> {} {} from {} trace={}", requestId, method, path, clientIp, traceId);
 
-        return chain.filter(mutatedExchange)
-                .then(Mono.fromRunnable(() -> logResponse(mutatedExchange, requestId, method, path, startTime)));
+        RequestTimeline timeline = slowRequestLog.start(exchange, startNanos);
+        Mono<Void> response = chain.filter(mutatedExchange)
+                .then(Mono.fromRunnable(() -> logResponse(mutatedExchange, requestId, method, path, startTime, startNanos)));
+        if (timeline == null) {
+            return response;
+        }
+        // doFinally, so errors and cancelled requests get their timeline completed too
+        return response.doFinally(signal -> logIfSlow(mutatedExchange, timeline, requestId, traceId, method, path,
+                startTime));
+    }
+
+    private void logIfSlow(ServerWebExchange exchange, RequestTimeline timeline, String requestId, String traceId,
+                           String method, String path, Instant startTime) {
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : 0;
+        SlowRequest slowRequest = slowRequestLog.finish(exchange, timeline, startTime, requestId, traceId, method,
+                path, getRouteId(exchange), status);
+        if (slowRequest != null) {
+            log.warn("[{}] SLOW {} {} {} {}ms route={} trace={} {}", requestId, method, path, status,
+                    slowRequest.durationMs(), slowRequest.route(), traceId, slowRequest.describePhases());
+        }
     }
 
-    private void logResponse(ServerWebExchange exchange, String requestId, String method, String path, Instant startTime) {
+    private void logResponse(ServerWebExchange exchange, String requestId, String method, String path, Instant startTime,
+                             long startNanos) {
         ServerHttpResponse response = exchange.getResponse();
         HttpStatusCode statusCode = response.getStatusCode();
 
@@ -81,12 +131,19 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
 
         int status = statusCode != null ? statusCode.value() : 0;
 
+        // For streams the duration is how long the stream stayed open, so also log when it started
+        String stream = "";
+        long firstByteNanos = StreamingResponseUtils.getFirstByteNanos(exchange);
+        if (StreamingResponseUtils.wasStreamed(exchange) && firstByteNanos >= startNanos) {
+            stream = " stream ttfb=" + TimeUnit.NANOSECONDS.toMillis(firstByteNanos - startNanos) + "ms";
+        }
+
         if (status >= 500) {
-            log.error("[{}] <-- {} {} {} {}ms route={}", requestId, method, path, status, durationMs, routeId);
+            log.error("[{}] <-- {} {} {} {}ms route={}{}", requestId, method, path, status, durationMs, routeId, stream);
         } else if (status >= 400) {
-            log.warn("[{}] <-- {} {} {} {}ms route={}", requestId, method, path, status, durationMs, routeId);
+            log.warn("[{}] <-- {} {} {} {}ms route={}{}", requestId, method, path, status, durationMs, routeId, stream);
         } else {
-            log.info("[{}] <-- {} {} {} {}ms route={}", requestId, method, path, status, durationMs, routeId);
+            log.info("[{}] <-- {} {} {} {}ms route={}{}", requestId, method, path, status, durationMs, routeId, stream);
         }
     }
 
@@ -95,28 +152,6 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         return route != null ? route.getId() : "unknown";
     }
 
-    private String getClientIp(ServerHttpRequest request) {
-        // Check X-Forwarded-For header first (for proxied requests)
-        String xForwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // Take the first IP if multiple are present
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        // Check X-Real-IP header
-        String xRealIp = request.getHeaders().getFirst("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        // Fall back to remote address
-        if (request.getRemoteAddress() != null) {
-            return request.getRemoteAddress().getAddress().getHostAddress();
-        }
-
-        return "unknown";
-    }
-
     @Override
     public int getOrder() {
         return ORDER;
@@ -1,24 +1,22 @@
 package com.catface996.gateway.infrastructure.filter;
 
 import com.catface996.gateway.common.constants.RouteConstants;
-import com.catface996.gateway.common.dto.ErrorResponse;
 import com.catface996.gateway.common.enums.ErrorCode;
 import com.catface996.gateway.domain.auth.model.AuthenticationResult;
 import com.catface996.gateway.domain.auth.model.TokenInfo;
 import com.catface996.gateway.domain.auth.service.AuthenticationService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.catface996.gateway.infrastructure.error.ErrorResponseWriter;
+import com.catface996.gateway.infrastructure.observability.AuthValidationEvent;
+import com.catface996.gateway.infrastructure.observability.RequestTimeline;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.warmup.WarmupRouteLocator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -44,21 +42,16 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
      */
     public static final int ORDER = AccessLogFilter.ORDER + 100;
 
-    /**
-     * Exchange attribute key for storing the authenticated operator ID.
-     */
-    public static final String OPERATOR_ID_ATTR = "operatorId";
-
     private final AuthenticationService authenticationService;
-    private final ObjectMapper objectMapper;
+    private final ErrorResponseWriter errorResponseWriter;
     private final boolean authEnabled;
 
     public AuthenticationGatewayFilter(
             AuthenticationService authenticationService,
-            ObjectMapper objectMapper,
+            ErrorResponseWriter errorResponseWriter,
             @org.springframework.beans.factory.annotation.Value("${gateway.auth.enabled:true}") boolean authEnabled) {
         this.authenticationService = authenticationService;
-        this.objectMapper = objectMapper;
+        this.errorResponseWriter = errorResponseWriter;
         this.authEnabled = authEnabled;
         log.info("Authentication filter initialized, enabled: {}", authEnabled);
     }
@@ -86,8 +79,21 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
             return writeUnauthorizedResponse(exchange, "Missing or invalid Authorization header");
         }
 
-        // Validate token with auth service
-        return authenticationService.authenticate(tokenInfo)
+        // Validate token with auth service; JIT warm-up requests bring a stub result instead
+        RequestTimeline.mark(exchange, RequestTimeline.Mark.AUTH_START);
+        AuthValidationEvent event = AuthValidationEvent.start();
+        AuthenticationResult stubResult = exchange.getAttribute(WarmupRouteLocator.AUTH_RESULT_ATTR);
+        Mono<AuthenticationResult> authentication = stubResult != null
+                ? Mono.just(stubResult)
+                : authenticationService.authenticate(tokenInfo);
+        return authentication
+                .doOnNext(result -> {
+                    RequestTimeline.mark(exchange, RequestTimeline.Mark.AUTH_END);
+                    if (event != null) {
+                        event.finish(RouteMetadataUtils.getRouteId(exchange), result.isAuthenticated(),
+                                result.getOperatorId());
+                    }
+                })
                 .flatMap(result -> handleAuthenticationResult(exchange, chain, result));
     }
 
@@ -105,7 +111,7 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
                                                    AuthenticationResult result) {
         if (result.isAuthenticated()) {
             // Store operator ID in exchange attributes for OperatorIdInjectionFilter
-            exchange.getAttributes().put(OPERATOR_ID_ATTR, result.getOperatorId());
+            exchange.getAttributes().put(RouteConstants.OPERATOR_ID_ATTR, result.getOperatorId());
             log.debug("Authentication successful, operatorId: {}", result.getOperatorId());
             return chain.filter(exchange);
         } else {
@@ -115,23 +121,7 @@ public class AuthenticationGatewayFilter implements GlobalFilter, Ordered {
     }
 
     private Mono<Void> writeUnauthorizedResponse(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .code(ErrorCode.UNAUTHORIZED.getCode())
-                .message(message)
-                .build();
-
-        try {
-            byte[] bytes = objectMapper.writeValueAsBytes(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing error response", e);
-            return response.setComplete();
-        }
+        return errorResponseWriter.write(exchange, HttpStatus.UNAUTHORIZED, ErrorCode.UNAUTHORIZED.getCode(), message);
     }
 
     @Override
@@ -0,0 +1,77 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.infrastructure.observability.RequestTimeline;
+import com.catface996.gateway.infrastructure.observability.UpstreamExchangeEvent;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.upstream.UpstreamHttpClientRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+/**
+ * Routing filter that proxies requests over the backend's own client.
+ * <p>
+ * Behaves exactly like {@link NettyRoutingFilter}, which it replaces for every request by running
+ * just before it, except that each backend is called through its client in the
+ * {@link UpstreamHttpClientRegistry}, with its own connection pool and protocol, and that the call
+ * is tracked on the request's {@link RequestTimeline} and recorded as an {@link UpstreamExchangeEvent}.
+ */
+@Component
+public class BackendRoutingFilter extends NettyRoutingFilter {
+
+    /**
+     * Filter order - runs right before NettyRoutingFilter, which then sees the exchange as routed.
+     */
+    public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    private final UpstreamHttpClientRegistry upstreamHttpClientRegistry;
+
+    public BackendRoutingFilter(
+            HttpClient httpClient,
+            ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+            HttpClientProperties httpClientProperties,
+            UpstreamHttpClientRegistry upstreamHttpClientRegistry) {
+        super(httpClient, headersFiltersProvider, httpClientProperties);
+        this.upstreamHttpClientRegistry = upstreamHttpClientRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (requestUrl == null || isAlreadyRouted(exchange)
+                || (!"http".equalsIgnoreCase(requestUrl.getScheme()) && !"https".equalsIgnoreCase(requestUrl.getScheme()))) {
+            return super.filter(exchange, chain);
+        }
+        return RequestTimeline.trackUpstream(exchange, UpstreamExchangeEvent.record(exchange, super.filter(exchange, chain)));
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient backendClient = upstreamHttpClientRegistry.get(RouteMetadataUtils.getBackendId(exchange));
+        // Honor the per-route connect timeout like NettyRoutingFilter does
+        long connectTimeout = RouteMetadataUtils.getLong(route, CONNECT_TIMEOUT_ATTR, -1);
+        return connectTimeout >= 0
+                ? backendClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout)
+                : backendClient;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
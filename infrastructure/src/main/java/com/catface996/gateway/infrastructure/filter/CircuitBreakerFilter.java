@@ -0,0 +1,133 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.common.exception.ServiceUnavailableException;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import com.catface996.gateway.infrastructure.support.UpstreamFailureUtils;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter that guards each backend service with a circuit breaker.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Uses one circuit breaker per backend (route metadata "service", or the route ID)</li>
+ *     <li>Allows routes to pick a dedicated breaker or opt out via metadata "circuit-breaker"</li>
+ *     <li>Records upstream errors and 5xx responses as failures, and slow calls by duration
+ *     (time to first byte for streamed responses, which may stay open indefinitely)</li>
+ *     <li>Fails fast with {@link ServiceUnavailableException} while the circuit is open</li>
+ *     <li>Maps upstream connect failures to {@link ServiceUnavailableException}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class CircuitBreakerFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs after OperatorIdInjectionFilter so rejected requests are never counted.
+     */
+    public static final int ORDER = OperatorIdInjectionFilter.ORDER + 100;
+
+    /**
+     * Metadata value that disables the circuit breaker for a route.
+     */
+    private static final String DISABLED = "false";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final boolean enabled;
+    private final boolean recordServerErrors;
+
+    public CircuitBreakerFilter(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            @Value("${gateway.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${gateway.circuit-breaker.record-server-errors:true}") boolean recordServerErrors) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.enabled = enabled;
+        this.recordServerErrors = recordServerErrors;
+        log.info("Circuit breaker filter initialized, enabled: {}", enabled);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        String name = RouteMetadataUtils.getString(route, RouteConstants.METADATA_KEY_CIRCUIT_BREAKER,
+                RouteMetadataUtils.getBackendId(exchange));
+        if (DISABLED.equalsIgnoreCase(name)) {
+            return chain.filter(exchange);
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.debug("Circuit breaker {} is {}, rejecting request", name, circuitBreaker.getState());
+            return Mono.error(new ServiceUnavailableException(
+                    "Service " + name + " is temporarily unavailable (circuit open)"));
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> recordResponse(circuitBreaker, exchange, start))
+                .doOnError(ex -> circuitBreaker.onError(elapsed(exchange, start), TimeUnit.NANOSECONDS, ex))
+                .doOnCancel(circuitBreaker::releasePermission)
+                .onErrorMap(UpstreamFailureUtils::isConnectFailure, ex -> new ServiceUnavailableException(
+                        "Service " + name + " is unreachable", ex));
+    }
+
+    private void recordResponse(CircuitBreaker circuitBreaker, ServerWebExchange exchange, long start) {
+        long duration = elapsed(exchange, start);
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+
+        if (recordServerErrors && status != null && status.is5xxServerError()) {
+            circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new UpstreamServerErrorException(status.value()));
+        } else {
+            circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the call's duration in nanoseconds, up to the first byte for streamed responses.
+     */
+    private static long elapsed(ServerWebExchange exchange, long startNanos) {
+        long firstByteNanos = StreamingResponseUtils.getFirstByteNanos(exchange);
+        if (StreamingResponseUtils.wasStreamed(exchange) && firstByteNanos >= startNanos) {
+            return firstByteNanos - startNanos;
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Marker recorded by the circuit breaker when a backend answers with a 5xx status.
+     */
+    private static final class UpstreamServerErrorException extends RuntimeException {
+
+        UpstreamServerErrorException(int status) {
+            super("Upstream responded with status " + status, null, false, false);
+        }
+    }
+}
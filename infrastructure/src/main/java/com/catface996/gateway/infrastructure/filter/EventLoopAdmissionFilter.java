@@ -0,0 +1,93 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.exception.LoadSheddingException;
+import com.catface996.gateway.infrastructure.resilience.EventLoopLagMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter that sheds new requests while the event loops are falling behind.
+ * <p>
+ * Every route is served by the same Netty event loops, so when something blocks or overloads them
+ * all routes slow down together, and accepting more work only makes it worse. This filter:
+ * <ul>
+ *     <li>Rejects new requests with {@link LoadSheddingException} (503) once the lag measured by
+ *     {@link EventLoopLagMonitor} reaches {@code gateway.event-loop.admission.reject-lag-ms}</li>
+ *     <li>Keeps rejecting until the lag drops below {@code gateway.event-loop.admission.recover-lag-ms},
+ *     so admission does not flap around a single threshold</li>
+ *     <li>Leaves requests already admitted alone</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class EventLoopAdmissionFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs right after AccessLogFilter, so rejected requests are logged but cost nothing else.
+     */
+    public static final int ORDER = AccessLogFilter.ORDER + 10;
+
+    private final EventLoopLagMonitor eventLoopLagMonitor;
+    private final Counter rejectedCounter;
+    private final boolean enabled;
+    private final long rejectLagNanos;
+    private final long recoverLagNanos;
+    private volatile boolean rejecting;
+
+    public EventLoopAdmissionFilter(
+            EventLoopLagMonitor eventLoopLagMonitor,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.event-loop.admission.enabled:true}") boolean enabled,
+            @Value("${gateway.event-loop.admission.reject-lag-ms:250}") long rejectLagMs,
+            @Value("${gateway.event-loop.admission.recover-lag-ms:50}") long recoverLagMs) {
+        this.eventLoopLagMonitor = eventLoopLagMonitor;
+        this.rejectedCounter = Counter.builder("gateway.event-loop.admission.rejected")
+                .description("Requests rejected because the event loops were lagging")
+                .register(meterRegistry);
+        this.enabled = enabled && eventLoopLagMonitor.isEnabled();
+        this.rejectLagNanos = TimeUnit.MILLISECONDS.toNanos(rejectLagMs);
+        this.recoverLagNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(recoverLagMs, rejectLagMs));
+        log.info("Event loop admission filter initialized, enabled: {}, reject lag: {}ms, recover lag: {}ms",
+                this.enabled, rejectLagMs, recoverLagMs);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || admit()) {
+            return chain.filter(exchange);
+        }
+        rejectedCounter.increment();
+        return Mono.error(new LoadSheddingException("Gateway is overloaded, please retry later"));
+    }
+
+    private boolean admit() {
+        long lag = eventLoopLagMonitor.getLagNanos();
+        if (rejecting) {
+            if (lag < recoverLagNanos) {
+                rejecting = false;
+                log.info("Event loop lag recovered to {}ms, admitting requests again",
+                        TimeUnit.NANOSECONDS.toMillis(lag));
+            }
+        } else if (lag >= rejectLagNanos) {
+            rejecting = true;
+            log.warn("Event loop lag of {}ms exceeds {}ms, rejecting new requests",
+                    TimeUnit.NANOSECONDS.toMillis(lag), TimeUnit.NANOSECONDS.toMillis(rejectLagNanos));
+        }
+        return !rejecting;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,225 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.observability.RequestTimeline;
+import com.catface996.gateway.infrastructure.observability.UpstreamExchangeEvent;
+import com.catface996.gateway.infrastructure.resilience.RetryBudgetRegistry;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.upstream.UpstreamHttpClientRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Global filter that hedges slow GET requests on routes with metadata "hedge-after-ms".
+ * <p>
+ * This filter takes over routing from {@link NettyRoutingFilter} for hedged requests:
+ * <ul>
+ *     <li>Sends the GET to the backend as usual</li>
+ *     <li>If no response headers arrived after "hedge-after-ms", sends a second identical GET
+ *     on another pooled connection (another stream for HTTP/2 backends), provided the backend's retry budget allows it</li>
+ *     <li>Uses whichever response arrives first and cancels the other one</li>
+ *     <li>Leaves the winning connection to {@code NettyWriteResponseFilter}, exactly like
+ *     {@link NettyRoutingFilter}, so the body is streamed unchanged</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class HedgingRoutingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs right before the routing filters.
+     */
+    public static final int ORDER = BackendRoutingFilter.ORDER - 1;
+
+    private final UpstreamHttpClientRegistry upstreamHttpClientRegistry;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final HttpClientProperties httpClientProperties;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<String, Counter> hedgeCounters = new ConcurrentHashMap<>();
+
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgingRoutingFilter(
+            UpstreamHttpClientRegistry upstreamHttpClientRegistry,
+            ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+            HttpClientProperties httpClientProperties,
+            RetryBudgetRegistry retryBudgetRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.retry.hedge.enabled:true}") boolean enabled) {
+        this.upstreamHttpClientRegistry = upstreamHttpClientRegistry;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.httpClientProperties = httpClientProperties;
+        this.retryBudgetRegistry = retryBudgetRegistry;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (!enabled || route == null || requestUrl == null || isAlreadyRouted(exchange)
+                || !HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                || (!"http".equalsIgnoreCase(requestUrl.getScheme()) && !"https".equalsIgnoreCase(requestUrl.getScheme()))) {
+            return chain.filter(exchange);
+        }
+
+        long hedgeAfterMs = RouteMetadataUtils.getLong(route, RouteConstants.METADATA_KEY_HEDGE_AFTER_MS, 0);
+        if (hedgeAfterMs <= 0) {
+            return chain.filter(exchange);
+        }
+        setAlreadyRouted(exchange);
+
+        String backendId = RouteMetadataUtils.getBackendId(exchange);
+        DefaultHttpHeaders requestHeaders = new DefaultHttpHeaders();
+        HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange).forEach(requestHeaders::set);
+
+        AtomicBoolean responded = new AtomicBoolean();
+        Mono<HttpClientResponse> primary = send(exchange, requestUrl, requestHeaders, responded, "primary");
+        Mono<HttpClientResponse> hedge = Mono.delay(Duration.ofMillis(hedgeAfterMs))
+                .filter(ignored -> retryBudgetRegistry.tryAcquire(backendId))
+                .flatMap(ignored -> {
+                    log.debug("No response from {} after {}ms, sending hedged request", backendId, hedgeAfterMs);
+                    countHedge(backendId, "sent");
+                    return send(exchange, requestUrl, requestHeaders, responded, "hedge");
+                });
+
+        // The first response wins; an error from either attempt fails the request like an unhedged call
+        Mono<HttpClientResponse> response = Flux.merge(primary, hedge).next();
+        Duration responseTimeout = httpClientProperties.getResponseTimeout();
+        if (responseTimeout != null) {
+            response = response.timeout(responseTimeout, Mono.defer(() -> Mono.error(
+                            new TimeoutException("Response took longer than timeout: " + responseTimeout))))
+                    .onErrorMap(TimeoutException.class,
+                            th -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, th.getMessage(), th));
+        }
+
+        return RequestTimeline.trackUpstream(exchange, UpstreamExchangeEvent.record(exchange, response))
+                .then(chain.filter(exchange));
+    }
+
+    /**
+     * Sends one attempt; only the first attempt to receive response headers populates the exchange.
+     */
+    private Mono<HttpClientResponse> send(ServerWebExchange exchange, URI requestUrl, DefaultHttpHeaders requestHeaders,
+                                          AtomicBoolean responded, String attempt) {
+        boolean preserveHost = exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false);
+        String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+
+        return upstreamHttpClientRegistry.get(RouteMetadataUtils.getBackendId(exchange))
+                .headers(headers -> {
+                    headers.add(requestHeaders);
+                    headers.remove(HttpHeaders.HOST);
+                    if (preserveHost && host != null) {
+                        headers.add(HttpHeaders.HOST, host);
+                    }
+                })
+                .get()
+                .uri(requestUrl.toASCIIString())
+                .responseConnection((res, connection) -> {
+                    if (!responded.compareAndSet(false, true)) {
+                        connection.dispose();
+                        return Mono.<HttpClientResponse>empty();
+                    }
+                    countHedge(RouteMetadataUtils.getBackendId(exchange), attempt + "-won");
+                    applyResponse(exchange, res, connection);
+                    return Mono.just(res);
+                })
+                .next();
+    }
+
+    /**
+     * Exposes the upstream response to later filters, mirroring {@link NettyRoutingFilter}.
+     */
+    private void applyResponse(ServerWebExchange exchange, HttpClientResponse res, Connection connection) {
+        exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, res);
+        exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, connection);
+
+        HttpHeaders headers = new HttpHeaders();
+        res.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+
+        String contentTypeValue = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.hasLength(contentTypeValue)) {
+            exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentTypeValue);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(res.status().code()));
+
+        HttpHeaders filteredHeaders = HttpHeadersFilter.filter(getHeadersFilters(), headers, exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        if (!filteredHeaders.containsKey(HttpHeaders.TRANSFER_ENCODING)
+                && filteredHeaders.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, filteredHeaders.keySet());
+        response.getHeaders().addAll(filteredHeaders);
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private void countHedge(String backendId, String outcome) {
+        String key = backendId + ' ' + outcome;
+        Counter counter = hedgeCounters.get(key);
+        if (counter == null) {
+            counter = hedgeCounters.computeIfAbsent(key, k -> Counter.builder("gateway.retry.hedges")
+                    .tag("backend", backendId)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,232 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.common.enums.ErrorCode;
+import com.catface996.gateway.common.exception.IdempotencyKeyException;
+import com.catface996.gateway.infrastructure.cache.BodyCapture;
+import com.catface996.gateway.infrastructure.cache.CachedResponse;
+import com.catface996.gateway.infrastructure.cache.IdempotencyStore;
+import com.catface996.gateway.infrastructure.support.ClientIpUtils;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global filter that makes POST requests carrying an {@code Idempotency-Key} header safe to retry.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Applies only to POST requests on routes with metadata "idempotency-key=true"</li>
+ *     <li>Scopes keys by operatorId (client IP when anonymous) and route</li>
+ *     <li>Runs the first request with a key and stores its response in the {@link IdempotencyStore}</li>
+ *     <li>Makes duplicates that arrive while it runs wait for its result</li>
+ *     <li>Replays the stored response to later duplicates without calling the backend,
+ *     marked with "Idempotent-Replayed: true"</li>
+ *     <li>Rejects a key reused for a different method, path or body with 422</li>
+ *     <li>Does not store 5xx, 408 and 429 responses or streams, so a retry after them runs again</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs after OperatorIdInjectionFilter (the body is final) and before
+     * CircuitBreakerFilter so replays never count against the backend.
+     */
+    public static final int ORDER = RequestCollapsingFilter.ORDER + 10;
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int INITIAL_CAPTURE_BYTES = 8 * 1024;
+
+    private final IdempotencyStore idempotencyStore;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxEntryBytes;
+    private final Map<String, Counter> resultCounters = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(
+            IdempotencyStore idempotencyStore,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.idempotency.enabled:true}") boolean enabled,
+            @Value("${gateway.idempotency.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this.idempotencyStore = idempotencyStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxEntryBytes = maxEntryBytes;
+        log.info("Idempotency filter initialized, enabled: {}, max entry bytes: {}", enabled, maxEntryBytes);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String idempotencyKey = request.getHeaders().getFirst(RouteConstants.HEADER_IDEMPOTENCY_KEY);
+        if (!enabled || idempotencyKey == null || !HttpMethod.POST.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        if (route == null
+                || !RouteMetadataUtils.getBoolean(route, RouteConstants.METADATA_KEY_IDEMPOTENCY_KEY, false)) {
+            return chain.filter(exchange);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new IdempotencyKeyException(ErrorCode.INVALID_IDEMPOTENCY_KEY,
+                    "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String key = ClientIpUtils.getClientKey(exchange) + ' ' + route.getId() + ' ' + idempotencyKey;
+        // Cache the body so it can be fingerprinted and still be sent upstream
+        return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest -> {
+            ServerWebExchange cachedExchange = exchange.mutate().request(cachedRequest).build();
+            return execute(cachedExchange, chain, route.getId(), key, fingerprint(cachedExchange));
+        });
+    }
+
+    private Mono<Void> execute(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                               String key, String fingerprint) {
+        IdempotencyStore.Entry entry = new IdempotencyStore.Entry(fingerprint);
+        IdempotencyStore.Entry existing = idempotencyStore.putIfAbsent(key, entry);
+        if (existing == null) {
+            count(routeId, "executed");
+            return chain.filter(exchange.mutate().response(new RecordingResponse(exchange, key, entry)).build())
+                    .doFinally(signal -> idempotencyStore.complete(key, entry, null));
+        }
+
+        if (!existing.getFingerprint().equals(fingerprint)) {
+            count(routeId, "mismatch");
+            return Mono.error(new IdempotencyKeyException(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+        }
+
+        return existing.response()
+                .map(response -> Mono.defer(() -> {
+                    log.debug("Replaying stored response for idempotency key {}", key);
+                    count(routeId, "replayed");
+                    exchange.getResponse().getHeaders().set(RouteConstants.HEADER_IDEMPOTENT_REPLAYED, "true");
+                    return response.writeTo(exchange.getResponse());
+                }))
+                // The first request left nothing to replay, so this one runs (or waits) again
+                .defaultIfEmpty(Mono.defer(() -> execute(exchange, chain, routeId, key, fingerprint)))
+                .flatMap(next -> next);
+    }
+
+    /**
+     * Digests method, path, query and body, so a key cannot be replayed for a different request.
+     */
+    private String fingerprint(ServerWebExchange exchange) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        digest.update(request.getMethod().name().getBytes(StandardCharsets.UTF_8));
+        digest.update(request.getURI().getRawPath().getBytes(StandardCharsets.UTF_8));
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            digest.update(query.getBytes(StandardCharsets.UTF_8));
+        }
+        DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+        if (body != null) {
+            try (DataBuffer.ByteBufferIterator buffers = body.readableByteBuffers()) {
+                buffers.forEachRemaining(digest::update);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean isReplayable(HttpStatusCode status) {
+        return status != null && !status.is5xxServerError()
+                && status.value() != HttpStatus.REQUEST_TIMEOUT.value()
+                && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void count(String routeId, String result) {
+        String key = routeId + ' ' + result;
+        Counter counter = resultCounters.get(key);
+        if (counter == null) {
+            counter = resultCounters.computeIfAbsent(key, k -> Counter.builder("gateway.idempotency.requests")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Response decorator that captures a replayable response for the store while it streams to the client.
+     */
+    private final class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final IdempotencyStore.Entry entry;
+
+        private RecordingResponse(ServerWebExchange exchange, String key, IdempotencyStore.Entry entry) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long contentLength = getHeaders().getContentLength();
+            if (!isReplayable(getStatusCode()) || contentLength > maxEntryBytes
+                    || StreamingResponseUtils.isStreaming(exchange, getHeaders())) {
+                // Duplicates wait until this request finishes, then run again
+                return super.writeWith(body);
+            }
+
+            BodyCapture capture = new BodyCapture(
+                    contentLength >= 0 ? (int) contentLength : INITIAL_CAPTURE_BYTES, maxEntryBytes);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> store(capture)));
+        }
+
+        private void store(BodyCapture capture) {
+            ByteBuffer body = capture.finish();
+            if (body == null) {
+                log.warn("Response for idempotency key {} exceeds {} bytes and cannot be replayed", key, maxEntryBytes);
+                return;
+            }
+            idempotencyStore.complete(key, entry, new CachedResponse(getStatusCode().value(),
+                    CachedResponse.replayableHeaders(getHeaders()), body, Map.of(), 0, System.nanoTime()));
+        }
+    }
+}
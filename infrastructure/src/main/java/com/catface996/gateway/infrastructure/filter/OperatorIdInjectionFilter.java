@@ -1,5 +1,7 @@
 package com.catface996.gateway.infrastructure.filter;
 
+import com.catface996.gateway.infrastructure.observability.BodyRewriteEvent;
+import com.catface996.gateway.infrastructure.observability.RequestTimeline;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,6 +27,7 @@ import reactor.core.publisher.Mono;
 import java.nio.charset.StandardCharsets;
 
 import static com.catface996.gateway.common.constants.RouteConstants.METADATA_KEY_PUBLIC;
+import static com.catface996.gateway.common.constants.RouteConstants.OPERATOR_ID_ATTR;
 
 /**
  * Global filter that injects the operatorId into the request body for authenticated requests.
@@ -73,13 +76,14 @@ public class OperatorIdInjectionFilter implements GlobalFilter, Ordered {
         }
 
         // Get operator ID from exchange attributes (set by AuthenticationGatewayFilter)
-        Long operatorId = exchange.getAttribute(AuthenticationGatewayFilter.OPERATOR_ID_ATTR);
+        Long operatorId = exchange.getAttribute(OPERATOR_ID_ATTR);
         if (operatorId == null) {
             log.debug("No operatorId found in exchange attributes, skipping injection");
             return chain.filter(exchange);
         }
 
         // Read and modify request body
+        RequestTimeline.mark(exchange, RequestTimeline.Mark.BODY_START);
         return DataBufferUtils.join(exchange.getRequest().getBody())
                 .defaultIfEmpty(exchange.getResponse().bufferFactory().wrap(new byte[0]))
                 .flatMap(dataBuffer -> {
@@ -87,8 +91,14 @@ public class OperatorIdInjectionFilter implements GlobalFilter, Ordered {
                     dataBuffer.read(bytes);
                     DataBufferUtils.release(dataBuffer);
 
+                    BodyRewriteEvent event = BodyRewriteEvent.start();
                     String originalBody = new String(bytes, StandardCharsets.UTF_8);
                     String modifiedBody = injectOperatorId(originalBody, operatorId);
+                    RequestTimeline.mark(exchange, RequestTimeline.Mark.BODY_END);
+                    if (event != null) {
+                        event.finish(BodyRewriteEvent.OPERATOR_ID, exchange.getRequest().getURI().getPath(),
+                                bytes.length, modifiedBody.getBytes(StandardCharsets.UTF_8).length);
+                    }
 
                     return continueWithModifiedBody(exchange, chain, modifiedBody);
                 });
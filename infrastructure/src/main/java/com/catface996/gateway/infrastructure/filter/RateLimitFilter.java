@@ -0,0 +1,118 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.common.exception.RateLimitExceededException;
+import com.catface996.gateway.infrastructure.ratelimit.TokenBucketStore;
+import com.catface996.gateway.infrastructure.support.ClientIpUtils;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter that rate limits requests per operator and route.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Keys requests by operatorId (set by AuthenticationGatewayFilter), falling back to the
+ *     client IP for public routes or when authentication is disabled</li>
+ *     <li>Reads per-route limits from metadata "rate-limit-replenish-rate" and
+ *     "rate-limit-burst-capacity" (a replenish rate of 0 disables limiting for the route)</li>
+ *     <li>Keeps token buckets in the in-memory {@link TokenBucketStore}, no Redis required</li>
+ *     <li>Rejects excess requests with {@link RateLimitExceededException} (429 with Retry-After)</li>
+ *     <li>Counts rejections per route as {@code gateway.ratelimit.rejected}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs after AuthenticationGatewayFilter (operatorId is known) and before
+     * OperatorIdInjectionFilter reads the request body.
+     */
+    public static final int ORDER = AuthenticationGatewayFilter.ORDER + 50;
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucketStore tokenBucketStore;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double defaultReplenishRate;
+    private final int defaultBurstCapacity;
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(
+            TokenBucketStore tokenBucketStore,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.enabled:true}") boolean enabled,
+            @Value("${gateway.rate-limit.replenish-rate:50}") double defaultReplenishRate,
+            @Value("${gateway.rate-limit.burst-capacity:100}") int defaultBurstCapacity) {
+        this.tokenBucketStore = tokenBucketStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultReplenishRate = defaultReplenishRate;
+        this.defaultBurstCapacity = defaultBurstCapacity;
+        Gauge.builder("gateway.ratelimit.buckets", tokenBucketStore, TokenBucketStore::size)
+                .description("Rate-limit buckets held in memory")
+                .register(meterRegistry);
+        log.info("Rate limit filter initialized, enabled: {}, default rate: {}/s, burst: {}",
+                enabled, defaultReplenishRate, defaultBurstCapacity);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        double replenishRate = RouteMetadataUtils.getDouble(route,
+                RouteConstants.METADATA_KEY_RATE_LIMIT_REPLENISH_RATE, defaultReplenishRate);
+        if (replenishRate <= 0) {
+            return chain.filter(exchange);
+        }
+        int burstCapacity = RouteMetadataUtils.getInt(route,
+                RouteConstants.METADATA_KEY_RATE_LIMIT_BURST_CAPACITY, defaultBurstCapacity);
+
+        String key = route.getId() + ':' + ClientIpUtils.getClientKey(exchange);
+        long waitNanos = tokenBucketStore.tryConsume(key, replenishRate, Math.max(1, burstCapacity));
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + NANOS_PER_SECOND - 1));
+        log.debug("Rate limit exceeded for {}, retry after {}s", key, retryAfterSeconds);
+        rejectedCounter(route.getId()).increment();
+        return Mono.error(new RateLimitExceededException("Rate limit exceeded, retry later", retryAfterSeconds));
+    }
+
+    private Counter rejectedCounter(String routeId) {
+        return rejectedCounters.computeIfAbsent(routeId, id -> Counter.builder("gateway.ratelimit.rejected")
+                .tag("route", id)
+                .description("Requests rejected by the rate limiter")
+                .register(meterRegistry));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
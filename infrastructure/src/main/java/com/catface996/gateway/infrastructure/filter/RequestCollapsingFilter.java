@@ -0,0 +1,258 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.cache.BodyCapture;
+import com.catface996.gateway.infrastructure.cache.CachedResponse;
+import com.catface996.gateway.infrastructure.support.CacheControlUtils;
+import com.catface996.gateway.infrastructure.support.ClientIpUtils;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Global filter that collapses concurrent identical GET requests into one upstream call.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Applies only to GET requests on routes with metadata "collapse-requests=true"</li>
+ *     <li>Treats requests as identical when route, path, query, caller (operator, or client IP) and
+ *     the configured vary headers (Accept, Accept-Encoding, Accept-Language by default) match;
+ *     routes with metadata "collapse-per-operator=false" share responses across callers</li>
+ *     <li>Lets the first request (the leader) go upstream and fans its buffered response out to
+ *     every identical request that arrived while it was in flight</li>
+ *     <li>Stores nothing: the call is forgotten as soon as its response is complete</li>
+ *     <li>Lets waiting requests go upstream themselves if the leader fails or its response cannot
+ *     be shared (too large, streamed, Set-Cookie, Cache-Control private, or Vary on other headers)</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RequestCollapsingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs after ResponseCacheFilter, so cache hits are served first, and before
+     * CircuitBreakerFilter so collapsed requests never count against the backend.
+     */
+    public static final int ORDER = ResponseCacheFilter.ORDER + 25;
+
+    private static final int INITIAL_CAPTURE_BYTES = 8 * 1024;
+
+    private final Map<String, InFlightCall> inFlightCalls = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<String> varyHeaders;
+    private final Set<String> varyHeaderNames;
+    private final int maxBytes;
+    private final Map<String, Counter> resultCounters = new ConcurrentHashMap<>();
+
+    public RequestCollapsingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.request-collapsing.enabled:true}") boolean enabled,
+            @Value("${gateway.request-collapsing.vary-headers:Accept,Accept-Encoding,Accept-Language}")
+            List<String> varyHeaders,
+            @Value("${gateway.request-collapsing.max-bytes:1048576}") int maxBytes) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.varyHeaders = List.copyOf(varyHeaders);
+        this.varyHeaderNames = varyHeaders.stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxBytes = maxBytes;
+        Gauge.builder("gateway.collapse.inflight", inFlightCalls, Map::size)
+                .description("Upstream calls currently shared by collapsed requests")
+                .register(meterRegistry);
+        log.info("Request collapsing filter initialized, enabled: {}, vary headers: {}", enabled, varyHeaders);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || !HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        if (route == null
+                || !RouteMetadataUtils.getBoolean(route, RouteConstants.METADATA_KEY_COLLAPSE_REQUESTS, false)) {
+            return chain.filter(exchange);
+        }
+
+        String key = collapseKey(exchange, route);
+        InFlightCall call = new InFlightCall(key);
+        InFlightCall leader = inFlightCalls.putIfAbsent(key, call);
+        if (leader != null) {
+            return follow(exchange, chain, route.getId(), leader);
+        }
+
+        count(route.getId(), "leader");
+        return chain.filter(exchange.mutate().response(new SharingResponse(exchange, call)).build())
+                .doFinally(signal -> call.complete(null));
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                              InFlightCall leader) {
+        return leader.response.asMono()
+                .map(response -> Mono.defer(() -> {
+                    log.debug("Collapsed request {} onto in-flight call", leader.key);
+                    count(routeId, "collapsed");
+                    return response.writeTo(exchange.getResponse());
+                }))
+                .defaultIfEmpty(Mono.defer(() -> {
+                    // The leader's response could not be shared, go upstream independently
+                    count(routeId, "fallback");
+                    return chain.filter(exchange);
+                }))
+                .flatMap(write -> write);
+    }
+
+    private String collapseKey(ServerWebExchange exchange, Route route) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(route.getId()).append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (RouteMetadataUtils.getBoolean(route, RouteConstants.METADATA_KEY_COLLAPSE_PER_OPERATOR, true)) {
+            key.append(' ').append(ClientIpUtils.getClientKey(exchange));
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : varyHeaders) {
+            key.append('\n').append(name).append(':').append(headers.getOrEmpty(name));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns whether a response may be replayed to requests that only match on the vary headers.
+     */
+    private boolean isShareable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)
+                || CacheControlUtils.hasDirective(headers.getCacheControl(), "private")) {
+            return false;
+        }
+        for (String name : headers.getVary()) {
+            if (!varyHeaderNames.contains(name.toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void count(String routeId, String result) {
+        String key = routeId + ' ' + result;
+        Counter counter = resultCounters.get(key);
+        if (counter == null) {
+            counter = resultCounters.computeIfAbsent(key, k -> Counter.builder("gateway.collapse.requests")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * An upstream call that identical requests can wait on.
+     */
+    private final class InFlightCall {
+
+        private final String key;
+        private final Sinks.One<CachedResponse> response = Sinks.one();
+
+        private InFlightCall(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Stops accepting followers and hands them the response, or null to send them upstream.
+         */
+        private void complete(CachedResponse result) {
+            inFlightCalls.remove(key, this);
+            if (result != null) {
+                response.tryEmitValue(result);
+            } else {
+                response.tryEmitEmpty();
+            }
+        }
+    }
+
+    /**
+     * Response decorator that buffers the leader's body on-heap while it streams to the leader's client.
+     */
+    private final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final InFlightCall call;
+
+        private SharingResponse(ServerWebExchange exchange, InFlightCall call) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.call = call;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength > maxBytes || !isShareable(getHeaders())
+                    || StreamingResponseUtils.isStreaming(exchange, getHeaders())) {
+                call.complete(null);
+                return super.writeWith(body);
+            }
+
+            BodyCapture capture = new BodyCapture(
+                    contentLength >= 0 ? (int) contentLength : INITIAL_CAPTURE_BYTES, maxBytes);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> share(capture)));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streamed responses are not buffered; followers go upstream right away
+            call.complete(null);
+            return super.writeAndFlushWith(body);
+        }
+
+        private void share(BodyCapture capture) {
+            ByteBuffer body = capture.finish();
+            HttpStatusCode status = getDelegate().getStatusCode();
+            if (body == null || status == null) {
+                call.complete(null);
+                return;
+            }
+            call.complete(new CachedResponse(status.value(), CachedResponse.replayableHeaders(getHeaders()),
+                    body, Map.of(), 0, System.nanoTime()));
+        }
+    }
+}
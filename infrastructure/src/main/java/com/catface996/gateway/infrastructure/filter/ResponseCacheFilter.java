@@ -0,0 +1,215 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.cache.BodyCapture;
+import com.catface996.gateway.infrastructure.cache.CachedResponse;
+import com.catface996.gateway.infrastructure.cache.ResponseCacheStore;
+import com.catface996.gateway.infrastructure.support.CacheControlUtils;
+import com.catface996.gateway.infrastructure.support.ClientIpUtils;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter that serves repeated GET requests from the gateway's response cache.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Applies only to GET requests on routes with metadata "response-cache-ttl-seconds"</li>
+ *     <li>Keys entries by route, path and query, plus the operator unless the route sets
+ *     "response-cache-per-operator=false"</li>
+ *     <li>Honors Cache-Control (no-store, no-cache, private, max-age, s-maxage) and Vary on
+ *     requests and responses; only complete 200 responses without Set-Cookie are stored, never streams</li>
+ *     <li>Keeps bodies off-heap in the {@link ResponseCacheStore} and replays them without copying</li>
+ *     <li>Marks proxied responses with "X-Cache: MISS" and cached ones with "X-Cache: HIT" and Age</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs after authentication and rate limiting, and before CircuitBreakerFilter
+     * so cache hits never count against the backend.
+     */
+    public static final int ORDER = OperatorIdInjectionFilter.ORDER + 50;
+
+    private static final String CACHE_HIT = "HIT";
+    private static final String CACHE_MISS = "MISS";
+
+    private static final int INITIAL_CAPTURE_BYTES = 8 * 1024;
+
+    private final ResponseCacheStore responseCacheStore;
+    private final boolean enabled;
+    private final int maxEntryBytes;
+
+    public ResponseCacheFilter(
+            ResponseCacheStore responseCacheStore,
+            @Value("${gateway.response-cache.enabled:true}") boolean enabled,
+            @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this.responseCacheStore = responseCacheStore;
+        this.enabled = enabled;
+        this.maxEntryBytes = maxEntryBytes;
+        log.info("Response cache filter initialized, enabled: {}, max entry bytes: {}", enabled, maxEntryBytes);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || !HttpMethod.GET.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        long ttlSeconds = RouteMetadataUtils.getLong(route, RouteConstants.METADATA_KEY_RESPONSE_CACHE_TTL_SECONDS, 0);
+        String requestCacheControl = request.getHeaders().getCacheControl();
+        if (ttlSeconds <= 0 || CacheControlUtils.hasDirective(requestCacheControl, "no-store")) {
+            return chain.filter(exchange);
+        }
+
+        boolean perOperator = RouteMetadataUtils.getBoolean(route,
+                RouteConstants.METADATA_KEY_RESPONSE_CACHE_PER_OPERATOR, true);
+        String key = cacheKey(exchange, route, perOperator);
+
+        // A "no-cache" request skips the lookup but may refresh the entry
+        if (!CacheControlUtils.hasDirective(requestCacheControl, "no-cache")) {
+            CachedResponse cached = responseCacheStore.get(key, request.getHeaders());
+            if (cached != null) {
+                log.debug("Serving {} from response cache", key);
+                return writeCached(exchange.getResponse(), cached);
+            }
+        }
+
+        CachingResponse response = new CachingResponse(exchange, key, ttlSeconds, perOperator);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private String cacheKey(ServerWebExchange exchange, Route route, boolean perOperator) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(route.getId()).append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (perOperator) {
+            key.append(' ').append(ClientIpUtils.getClientKey(exchange));
+        }
+        return key.toString();
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+        response.getHeaders().set(RouteConstants.HEADER_X_CACHE, CACHE_HIT);
+        return cached.writeTo(response);
+    }
+
+    /**
+     * Returns how long a response may be cached, or 0 if it must not be stored.
+     */
+    private long cacheableTtlSeconds(ServerHttpResponse response, long routeTtlSeconds, boolean perOperator) {
+        HttpStatusCode status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.getVary().contains("*")) {
+            return 0;
+        }
+
+        String cacheControl = headers.getCacheControl();
+        if (CacheControlUtils.hasDirective(cacheControl, "no-store")
+                || CacheControlUtils.hasDirective(cacheControl, "no-cache")
+                || (!perOperator && CacheControlUtils.hasDirective(cacheControl, "private"))) {
+            return 0;
+        }
+        long maxAge = CacheControlUtils.directiveSeconds(cacheControl, "s-maxage");
+        if (maxAge < 0) {
+            maxAge = CacheControlUtils.directiveSeconds(cacheControl, "max-age");
+        }
+        return maxAge < 0 ? routeTtlSeconds : Math.min(routeTtlSeconds, maxAge);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Response decorator that captures a cacheable body for the store while it streams to the client.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final long routeTtlSeconds;
+        private final boolean perOperator;
+
+        private CachingResponse(ServerWebExchange exchange, String key, long routeTtlSeconds, boolean perOperator) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.routeTtlSeconds = routeTtlSeconds;
+            this.perOperator = perOperator;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            getHeaders().set(RouteConstants.HEADER_X_CACHE, CACHE_MISS);
+            long ttlSeconds = cacheableTtlSeconds(getDelegate(), routeTtlSeconds, perOperator);
+            long contentLength = getHeaders().getContentLength();
+            if (ttlSeconds <= 0 || contentLength > maxEntryBytes
+                    || StreamingResponseUtils.isStreaming(exchange, getHeaders())) {
+                return super.writeWith(body);
+            }
+
+            BodyCapture capture = new BodyCapture(
+                    contentLength >= 0 ? (int) contentLength : INITIAL_CAPTURE_BYTES, maxEntryBytes);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> store(capture, ttlSeconds)));
+        }
+
+        private void store(BodyCapture capture, long ttlSeconds) {
+            ByteBuffer body = capture.finish();
+            if (body == null) {
+                return;
+            }
+            Map<String, List<String>> varyValues = new LinkedHashMap<>();
+            HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+            for (String name : getHeaders().getVary()) {
+                List<String> values = requestHeaders.get(name);
+                varyValues.put(name, values != null ? List.copyOf(values) : null);
+            }
+            responseCacheStore.put(key, new CachedResponse(getDelegate().getStatusCode().value(),
+                    CachedResponse.replayableHeaders(getHeaders()), body, varyValues,
+                    TimeUnit.SECONDS.toNanos(ttlSeconds), System.nanoTime()));
+            log.debug("Stored {} ({} bytes) in response cache for {}s", key, body.remaining(), ttlSeconds);
+        }
+    }
+}
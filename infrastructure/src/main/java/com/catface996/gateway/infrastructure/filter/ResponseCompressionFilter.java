@@ -0,0 +1,296 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.compression.CompressorPool;
+import com.catface996.gateway.infrastructure.compression.ContentCoding;
+import com.catface996.gateway.infrastructure.compression.StreamCompressor;
+import com.catface996.gateway.infrastructure.support.CacheControlUtils;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Global filter that compresses proxied responses with gzip or deflate.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Negotiates the coding from the request's Accept-Encoding (gzip preferred, q-values honored)</li>
+ *     <li>Compresses only responses whose content type is in the allowlist and whose Content-Length
+ *     (when known) reaches the minimum size; routes override both via metadata
+ *     "compression-min-bytes" (negative disables compression) and "compression-mime-types"</li>
+ *     <li>Leaves responses that are already encoded, partial, empty or streamed untouched, since a
+ *     compressor holds back output until enough input has arrived</li>
+ *     <li>Compresses chunk by chunk as the body streams, with compressors borrowed from the
+ *     {@link CompressorPool} instead of a new {@code Deflater} per response</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs right after AccessLogFilter so every response written later in the
+     * chain (proxied, cached, collapsed or replayed) is compressed on the way out.
+     */
+    public static final int ORDER = AccessLogFilter.ORDER + 50;
+
+    private static final String IDENTITY = "identity";
+    private static final String ANY_CODING = "*";
+
+    private final CompressorPool compressorPool;
+    private final boolean enabled;
+    private final long defaultMinBytes;
+    private final List<MediaType> defaultMimeTypes;
+    private final Map<ContentCoding, CodingCounters> counters = new EnumMap<>(ContentCoding.class);
+
+    public ResponseCompressionFilter(
+            CompressorPool compressorPool,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.compression.enabled:true}") boolean enabled,
+            @Value("${gateway.compression.min-bytes:1024}") long defaultMinBytes,
+            @Value("${gateway.compression.mime-types:application/json,application/problem+json,text/plain,"
+                    + "text/html,text/css,application/javascript,application/xml}") List<String> defaultMimeTypes) {
+        this.compressorPool = compressorPool;
+        this.enabled = enabled;
+        this.defaultMinBytes = defaultMinBytes;
+        this.defaultMimeTypes = MediaType.parseMediaTypes(defaultMimeTypes);
+        for (ContentCoding coding : ContentCoding.values()) {
+            counters.put(coding, CodingCounters.register(coding, meterRegistry));
+        }
+        log.info("Response compression filter initialized, enabled: {}, min bytes: {}, mime types: {}",
+                enabled, defaultMinBytes, defaultMimeTypes);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        ContentCoding coding = negotiate(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        if (coding == null) {
+            return chain.filter(exchange);
+        }
+
+        return chain.filter(exchange.mutate().response(new CompressingResponse(exchange, coding)).build());
+    }
+
+    /**
+     * Picks the best supported coding from Accept-Encoding, or null if the client accepts none.
+     */
+    private static ContentCoding negotiate(List<String> acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzipQ = -1;
+        double deflateQ = -1;
+        double anyQ = -1;
+        for (String header : acceptEncoding) {
+            for (String element : header.split(",")) {
+                String[] parts = element.trim().split(";");
+                String token = parts[0].trim();
+                double q = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            q = Double.parseDouble(param.substring(2));
+                        } catch (NumberFormatException e) {
+                            q = 0;
+                        }
+                    }
+                }
+                if (token.equalsIgnoreCase(ContentCoding.GZIP.getToken()) || token.equalsIgnoreCase("x-gzip")) {
+                    gzipQ = q;
+                } else if (token.equalsIgnoreCase(ContentCoding.DEFLATE.getToken())) {
+                    deflateQ = q;
+                } else if (token.equals(ANY_CODING)) {
+                    anyQ = q;
+                }
+            }
+        }
+        gzipQ = gzipQ >= 0 ? gzipQ : anyQ;
+        deflateQ = deflateQ >= 0 ? deflateQ : anyQ;
+        if (gzipQ <= 0 && deflateQ <= 0) {
+            return null;
+        }
+        return gzipQ >= deflateQ ? ContentCoding.GZIP : ContentCoding.DEFLATE;
+    }
+
+    /**
+     * Returns whether the response about to be written should be compressed.
+     */
+    private boolean shouldCompress(ServerWebExchange exchange, ServerHttpResponse response) {
+        HttpStatusCode status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if (status == null || status.is1xxInformational() || status.value() == HttpStatus.NO_CONTENT.value()
+                || status.value() == HttpStatus.NOT_MODIFIED.value()
+                || status.value() == HttpStatus.PARTIAL_CONTENT.value()) {
+            return false;
+        }
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (StringUtils.hasText(contentEncoding) && !IDENTITY.equalsIgnoreCase(contentEncoding)) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_RANGE)
+                || CacheControlUtils.hasDirective(headers.getCacheControl(), "no-transform")
+                || StreamingResponseUtils.isStreaming(exchange, headers)) {
+            return false;
+        }
+
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        long minBytes = route != null ? RouteMetadataUtils.getLong(route,
+                RouteConstants.METADATA_KEY_COMPRESSION_MIN_BYTES, defaultMinBytes) : defaultMinBytes;
+        long contentLength = headers.getContentLength();
+        if (minBytes < 0 || contentLength == 0 || (contentLength > 0 && contentLength < minBytes)) {
+            return false;
+        }
+
+        MediaType contentType = headers.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        String routeMimeTypes = route != null
+                ? RouteMetadataUtils.getString(route, RouteConstants.METADATA_KEY_COMPRESSION_MIME_TYPES, null)
+                : null;
+        List<MediaType> mimeTypes = routeMimeTypes != null
+                ? MediaType.parseMediaTypes(routeMimeTypes)
+                : defaultMimeTypes;
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+    }
+
+    private void count(ContentCoding coding, StreamCompressor compressor) {
+        CodingCounters codingCounters = counters.get(coding);
+        codingCounters.responses().increment();
+        codingCounters.originalBytes().increment(compressor.getBytesRead());
+        codingCounters.compressedBytes().increment(compressor.getBytesWritten());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * The meters of one content coding, registered once.
+     */
+    private record CodingCounters(Counter responses, Counter originalBytes, Counter compressedBytes) {
+
+        static CodingCounters register(ContentCoding coding, MeterRegistry meterRegistry) {
+            String encoding = coding.getToken();
+            return new CodingCounters(
+                    Counter.builder("gateway.compression.responses")
+                            .tag("encoding", encoding)
+                            .description("Responses compressed by the gateway")
+                            .register(meterRegistry),
+                    Counter.builder("gateway.compression.bytes")
+                            .tag("encoding", encoding)
+                            .tag("stage", "original")
+                            .baseUnit("bytes")
+                            .register(meterRegistry),
+                    Counter.builder("gateway.compression.bytes")
+                            .tag("encoding", encoding)
+                            .tag("stage", "compressed")
+                            .baseUnit("bytes")
+                            .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Response decorator that compresses the body while it streams to the client.
+     */
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final ContentCoding coding;
+
+        private CompressingResponse(ServerWebExchange exchange, ContentCoding coding) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.coding = coding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (!shouldCompress(exchange, getDelegate())) {
+                return super.writeWith(body);
+            }
+
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            // The compressed representation differs byte-wise from the original
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            DataBufferFactory factory = bufferFactory();
+            Flux<DataBuffer> compressed = Flux.usingWhen(
+                    Mono.fromSupplier(() -> compressorPool.borrow(coding)),
+                    compressor -> Flux.from(body)
+                            .map(chunk -> {
+                                try {
+                                    return compressor.compress(chunk, factory);
+                                } finally {
+                                    DataBufferUtils.release(chunk);
+                                }
+                            })
+                            .concatWith(Mono.fromSupplier(() -> {
+                                DataBuffer tail = compressor.finish(factory);
+                                count(coding, compressor);
+                                return tail;
+                            }))
+                            .filter(this::nonEmpty),
+                    compressor -> Mono.fromRunnable(() -> compressorPool.release(compressor)),
+                    (compressor, error) -> Mono.fromRunnable(() -> compressorPool.release(compressor)),
+                    // A cancel may race with a chunk being compressed, so never reuse that compressor
+                    compressor -> Mono.fromRunnable(() -> compressorPool.discard(compressor)));
+            return super.writeWith(compressed);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Flushed streams (e.g. server-sent events) are passed through so every chunk reaches the client
+            return super.writeAndFlushWith(body);
+        }
+
+        private boolean nonEmpty(DataBuffer buffer) {
+            if (buffer.readableByteCount() > 0) {
+                return true;
+            }
+            DataBufferUtils.release(buffer);
+            return false;
+        }
+    }
+}
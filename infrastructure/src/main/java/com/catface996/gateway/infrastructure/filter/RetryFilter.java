@@ -0,0 +1,175 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.resilience.RetryBudgetRegistry;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.UpstreamFailureUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global filter that retries idempotent proxied requests within a per-backend retry budget.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Retries GET/HEAD requests, or any method on routes with metadata "idempotent=true"</li>
+ *     <li>Retries only on upstream connect failures and retryable statuses (503 by default)</li>
+ *     <li>Limits retries per route via metadata "retries" (0 disables them)</li>
+ *     <li>Withdraws a token from the backend's {@code RetryBudget} for every retry, so retries
+ *     stay a bounded fraction of base traffic even when the backend is failing</li>
+ * </ul>
+ * Runs after {@code NettyWriteResponseFilter} so a retried response is never written to the client.
+ */
+@Slf4j
+@Component
+public class RetryFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - wraps only the upstream call, inside the response writer.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultRetries;
+    private final Set<Integer> retryableStatuses;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final Map<String, Counter> retryCounters = new ConcurrentHashMap<>();
+
+    public RetryFilter(
+            RetryBudgetRegistry retryBudgetRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.retry.enabled:true}") boolean enabled,
+            @Value("${gateway.retry.retries:2}") int defaultRetries,
+            @Value("${gateway.retry.statuses:503}") Set<Integer> retryableStatuses,
+            @Value("${gateway.retry.backoff-ms:25}") long backoffMs,
+            @Value("${gateway.retry.max-backoff-ms:250}") long maxBackoffMs) {
+        this.retryBudgetRegistry = retryBudgetRegistry;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultRetries = defaultRetries;
+        this.retryableStatuses = retryableStatuses;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        log.info("Retry filter initialized, enabled: {}, retries: {}, statuses: {}",
+                enabled, defaultRetries, retryableStatuses);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        // Every original request earns retry budget for its backend
+        String backendId = RouteMetadataUtils.getBackendId(exchange);
+        retryBudgetRegistry.get(backendId).onRequest();
+
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        int retries = RouteMetadataUtils.getInt(route, RouteConstants.METADATA_KEY_RETRIES, defaultRetries);
+        if (retries <= 0) {
+            return chain.filter(exchange);
+        }
+
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) {
+            return attempt(exchange, chain, backendId, retries, 0);
+        }
+
+        if (!RouteMetadataUtils.getBoolean(route, RouteConstants.METADATA_KEY_IDEMPOTENT, false)) {
+            return chain.filter(exchange);
+        }
+
+        // Cache the body so each attempt can resend it
+        return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest ->
+                attempt(exchange.mutate().request(cachedRequest).build(), chain, backendId, retries, 0));
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain,
+                               String backendId, int retries, int retry) {
+        return chain.filter(exchange)
+                .materialize()
+                .flatMap(signal -> {
+                    Throwable error = signal.getThrowable();
+                    String reason = error != null ? retryableError(error) : retryableStatus(exchange);
+
+                    if (reason != null && retry < retries && retryBudgetRegistry.tryAcquire(backendId)) {
+                        log.debug("Retrying request to {} ({}), retry {}/{}", backendId, reason, retry + 1, retries);
+                        countRetry(backendId, reason);
+                        reset(exchange);
+                        return Mono.delay(backoff(retry))
+                                .then(attempt(exchange, chain, backendId, retries, retry + 1));
+                    }
+                    return error != null ? Mono.<Void>error(error) : Mono.<Void>empty();
+                });
+    }
+
+    private String retryableError(Throwable error) {
+        return UpstreamFailureUtils.isConnectFailure(error) ? "connect-failure" : null;
+    }
+
+    private String retryableStatus(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && retryableStatuses.contains(status.value()) ? String.valueOf(status.value()) : null;
+    }
+
+    private Duration backoff(int retry) {
+        long delay = Math.min(maxBackoffMs, backoffMs << Math.min(retry, 16));
+        // Full jitter spreads retries from concurrent requests
+        return Duration.ofMillis((long) (Math.random() * delay));
+    }
+
+    /**
+     * Discards the previous upstream response so the next attempt starts from a clean exchange.
+     */
+    private void reset(ServerWebExchange exchange) {
+        Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+            exchange.getAttributes().remove(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        }
+        ServerWebExchangeUtils.reset(exchange);
+    }
+
+    private void countRetry(String backendId, String reason) {
+        String key = backendId + ' ' + reason;
+        Counter counter = retryCounters.get(key);
+        if (counter == null) {
+            counter = retryCounters.computeIfAbsent(key, k -> Counter.builder("gateway.retry.attempts")
+                    .tag("backend", backendId)
+                    .tag("reason", reason)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,185 @@
+package com.catface996.gateway.infrastructure.filter;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import com.catface996.gateway.infrastructure.support.StreamingResponseUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter that passes streamed responses (server-sent events, NDJSON, chunked job output)
+ * through to the client as they are produced and times every response.
+ * <p>
+ * This filter:
+ * <ul>
+ *     <li>Detects streams by content type, or as chunked responses on routes with metadata
+ *     "streaming=true" (see {@link StreamingResponseUtils})</li>
+ *     <li>Flushes every chunk of a stream to the client as soon as it arrives, and sets
+ *     "X-Accel-Buffering: no" so proxies in front of the gateway do not buffer it either</li>
+ *     <li>Records time to first byte for every response ({@code gateway.response.ttfb}) and, for
+ *     streams, the time from first byte to end of stream ({@code gateway.stream.duration})</li>
+ *     <li>Marks streamed exchanges, so body-buffering filters pass them through and resilience
+ *     filters judge backend latency by time to first byte rather than stream length</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class StreamingResponseFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Filter order - runs right after AccessLogFilter, so its response decorator is the last one
+     * a body passes through and sees exactly what is written to the client.
+     */
+    public static final int ORDER = AccessLogFilter.ORDER + 25;
+
+    /**
+     * Exchange attribute set to {@code true} once the response is streamed.
+     */
+    public static final String STREAMING_ATTR = "streamingResponse";
+
+    /**
+     * Exchange attribute holding the {@link System#nanoTime()} at which the first body chunk was written.
+     */
+    public static final String FIRST_BYTE_NANOS_ATTR = "firstByteNanos";
+
+    private static final String NO_BUFFERING = "no";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<String, Timer> ttfbTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> streamTtfbTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> streamDurationTimers = new ConcurrentHashMap<>();
+
+    public StreamingResponseFilter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.streaming.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        log.info("Streaming response filter initialized, enabled: {}", enabled);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new StreamingResponse(exchange, System.nanoTime())).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Timer ttfbTimer(String routeId, boolean streaming) {
+        Map<String, Timer> timers = streaming ? streamTtfbTimers : ttfbTimers;
+        Timer timer = timers.get(routeId);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(routeId, id -> Timer.builder("gateway.response.ttfb")
+                    .tag("route", id)
+                    .tag("streaming", String.valueOf(streaming))
+                    .description("Time from request arrival to the first response body byte")
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private Timer streamDurationTimer(String routeId, String outcome) {
+        String key = routeId + ' ' + outcome;
+        Timer timer = streamDurationTimers.get(key);
+        if (timer == null) {
+            timer = streamDurationTimers.computeIfAbsent(key, k -> Timer.builder("gateway.stream.duration")
+                    .tag("route", routeId)
+                    .tag("outcome", outcome)
+                    .description("Time from the first byte of a streamed response to its end")
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    /**
+     * Response decorator that flushes streams chunk by chunk and records their timings.
+     */
+    private final class StreamingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final long startNanos;
+
+        private StreamingResponse(ServerWebExchange exchange, long startNanos) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!StreamingResponseUtils.isStreaming(exchange, getHeaders())) {
+                return super.writeWith(Flux.from(body).doOnNext(chunk -> onChunk(false)));
+            }
+            // Chunked streams would otherwise be flushed only when Netty's write queue fills up
+            startStream();
+            return super.writeAndFlushWith(Flux.from(body)
+                    .doOnNext(chunk -> onChunk(true))
+                    .doFinally(this::endStream)
+                    .map(Mono::just));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            startStream();
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(chunks -> Flux.from(chunks).doOnNext(chunk -> onChunk(true)))
+                    .doFinally(this::endStream));
+        }
+
+        private void startStream() {
+            exchange.getAttributes().put(STREAMING_ATTR, Boolean.TRUE);
+            HttpHeaders headers = getHeaders();
+            if (!headers.containsKey(RouteConstants.HEADER_X_ACCEL_BUFFERING)) {
+                headers.set(RouteConstants.HEADER_X_ACCEL_BUFFERING, NO_BUFFERING);
+            }
+        }
+
+        private void onChunk(boolean streaming) {
+            if (exchange.getAttributes().putIfAbsent(FIRST_BYTE_NANOS_ATTR, System.nanoTime()) != null) {
+                return;
+            }
+            ttfbTimer(RouteMetadataUtils.getRouteId(exchange), streaming)
+                    .record(StreamingResponseUtils.getFirstByteNanos(exchange) - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void endStream(SignalType signal) {
+            long firstByteNanos = StreamingResponseUtils.getFirstByteNanos(exchange);
+            if (firstByteNanos < 0) {
+                return;
+            }
+            String outcome = switch (signal) {
+                case ON_COMPLETE -> "complete";
+                case CANCEL -> "cancelled";
+                default -> "error";
+            };
+            streamDurationTimer(RouteMetadataUtils.getRouteId(exchange), outcome)
+                    .record(System.nanoTime() - firstByteNanos, TimeUnit.NANOSECONDS);
+            log.debug("Stream on route {} ended ({}) after {}ms", RouteMetadataUtils.getRouteId(exchange), outcome,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstByteNanos));
+        }
+    }
+}
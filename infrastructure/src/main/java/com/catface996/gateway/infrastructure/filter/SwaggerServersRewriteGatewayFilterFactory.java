@@ -1,5 +1,6 @@
 package com.catface996.gateway.infrastructure.filter;
 
+import com.catface996.gateway.infrastructure.observability.BodyRewriteEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -83,10 +84,15 @@ public class SwaggerServersRewriteGatewayFilterFactory extends AbstractGatewayFi
                                             dataBuffer.read(content);
                                             DataBufferUtils.release(dataBuffer);
 
+                                            BodyRewriteEvent event = BodyRewriteEvent.start();
                                             String responseBody = new String(content, StandardCharsets.UTF_8);
                                             String modifiedBody = rewriteServers(responseBody, gatewayBaseUrl);
 
                                             byte[] modifiedContent = modifiedBody.getBytes(StandardCharsets.UTF_8);
+                                            if (event != null) {
+                                                event.finish(BodyRewriteEvent.SWAGGER_SERVERS, path,
+                                                        content.length, modifiedContent.length);
+                                            }
 
                                             // Update Content-Length header
                                             originalResponse.getHeaders().setContentLength(modifiedContent.length);
@@ -0,0 +1,59 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the validation of a request's token by the auth service.
+ */
+@Name("com.catface996.gateway.AuthValidation")
+@Label("Auth Validation")
+@Category({"Gateway", "Auth"})
+@Description("Validation of a bearer token by the auth service")
+@StackTrace(false)
+public class AuthValidationEvent extends Event {
+
+    @Label("Route")
+    String route;
+
+    @Label("Authenticated")
+    boolean authenticated;
+
+    @Label("Operator ID")
+    long operatorId;
+
+    /**
+     * Begins an event if JFR records it.
+     *
+     * @return the event, or null if JFR is not recording auth validations
+     */
+    public static AuthValidationEvent start() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        AuthValidationEvent event = new AuthValidationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the event.
+     */
+    public void finish(String route, boolean authenticated, Long operatorId) {
+        end();
+        if (shouldCommit()) {
+            this.route = route;
+            this.authenticated = authenticated;
+            this.operatorId = operatorId != null ? operatorId : -1;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a rewrite of a request or response body by the gateway, once the body is aggregated.
+ */
+@Name("com.catface996.gateway.BodyRewrite")
+@Label("Body Rewrite")
+@Category({"Gateway", "Body"})
+@Description("Parsing and rewriting of an aggregated request or response body")
+@StackTrace(false)
+public class BodyRewriteEvent extends Event {
+
+    /**
+     * Rewrite injecting the operator ID into JSON request bodies.
+     */
+    public static final String OPERATOR_ID = "operator-id";
+
+    /**
+     * Rewrite replacing the servers of OpenAPI documents.
+     */
+    public static final String SWAGGER_SERVERS = "swagger-servers";
+
+    @Label("Rewrite")
+    String rewrite;
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes In")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long bytesOut;
+
+    /**
+     * Begins an event if JFR records it.
+     *
+     * @return the event, or null if JFR is not recording body rewrites
+     */
+    public static BodyRewriteEvent start() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        BodyRewriteEvent event = new BodyRewriteEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the event.
+     */
+    public void finish(String rewrite, String path, long bytesIn, long bytesOut) {
+        end();
+        if (shouldCommit()) {
+            this.rewrite = rewrite;
+            this.path = path;
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            commit();
+        }
+    }
+}
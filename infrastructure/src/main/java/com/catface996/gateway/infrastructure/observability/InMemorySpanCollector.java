@@ -0,0 +1,67 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Span exporter that keeps the last {@code capacity} exported spans in memory, for tests and local
+ * debugging ({@code gateway.tracing.export.type: memory}).
+ */
+public class InMemorySpanCollector implements SpanExporter {
+
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemorySpanCollector(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> exported) {
+        for (SpanData span : exported) {
+            if (spans.size() == capacity) {
+                spans.removeFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Returns the collected spans, oldest first.
+     */
+    public synchronized List<SpanData> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * Returns the collected spans of one trace, oldest first.
+     */
+    public synchronized List<SpanData> getSpans(String traceId) {
+        return spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+    }
+
+    /**
+     * Discards all collected spans.
+     */
+    public synchronized void reset() {
+        spans.clear();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
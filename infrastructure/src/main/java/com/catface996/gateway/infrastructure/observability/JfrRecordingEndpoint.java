@@ -0,0 +1,233 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Actuator endpoint running time-boxed Java Flight Recorder recordings of the gateway.
+ * <ul>
+ *     <li>{@code POST /actuator/jfr} ({@code {"durationSeconds": 60, "settings": "profile"}}, both optional)
+ *     starts a recording, at most {@code gateway.jfr.max-duration-seconds} long; only one runs at a time
+ *     (409 otherwise)</li>
+ *     <li>{@code DELETE /actuator/jfr} stops it early</li>
+ *     <li>{@code GET /actuator/jfr} shows the running recording and the recordings on disk</li>
+ *     <li>{@code GET /actuator/jfr/{file}} downloads a finished recording</li>
+ * </ul>
+ * Recordings include the JDK's events for the chosen settings ({@code default} or {@code profile})
+ * and the gateway's own: {@link AuthValidationEvent}, {@link BodyRewriteEvent},
+ * {@link RouteResolutionEvent} and {@link UpstreamExchangeEvent}. They are written to
+ * {@code gateway.jfr.directory}, which keeps the last {@code gateway.jfr.max-files}.
+ * <p>
+ * Recordings hold request paths and operator IDs; expose the endpoint ({@code jfr} in
+ * {@code management.endpoints.web.exposure.include}) only on a protected management port.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint implements DisposableBean {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final Pattern FILE_NAME = Pattern.compile("gateway-\\d{8}-\\d{6}\\.jfr");
+
+    private final Path directory;
+    private final String defaultSettings;
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final int maxFiles;
+    private Recording recording;
+    private Path recordingFile;
+
+    public JfrRecordingEndpoint(
+            @Value("${gateway.jfr.directory:${java.io.tmpdir}/gateway-jfr}") String directory,
+            @Value("${gateway.jfr.settings:profile}") String defaultSettings,
+            @Value("${gateway.jfr.default-duration-seconds:60}") long defaultDurationSeconds,
+            @Value("${gateway.jfr.max-duration-seconds:600}") long maxDurationSeconds,
+            @Value("${gateway.jfr.max-files:5}") int maxFiles) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.defaultSettings = defaultSettings;
+        this.defaultDuration = Duration.ofSeconds(defaultDurationSeconds);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording != null) {
+            Map<String, Object> current = new LinkedHashMap<>();
+            current.put("file", recordingFile.getFileName().toString());
+            current.put("state", recording.getState().name());
+            current.put("settings", recording.getName());
+            current.put("startTime", recording.getStartTime());
+            current.put("durationSeconds", recording.getDuration() != null ? recording.getDuration().toSeconds() : null);
+            status.put("recording", current);
+        }
+        status.put("files", listFiles().stream()
+                .map(file -> Map.of("file", file.getFileName().toString(), "bytes", size(file)))
+                .toList());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds,
+                                                                       @Nullable String settings) {
+        if (recording != null && isActive(recording.getState())) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        Duration duration = durationSeconds != null && durationSeconds > 0
+                ? Duration.ofSeconds(durationSeconds) : defaultDuration;
+        if (duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+        String settingsName = settings != null ? settings : defaultSettings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (Exception e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown JFR settings: " + settingsName),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        try {
+            Files.createDirectories(directory);
+            closeRecording();
+            pruneFiles(maxFiles - 1);
+            Path file = directory.resolve("gateway-" + FILE_TIME.format(Instant.now()) + ".jfr");
+            Recording newRecording = new Recording(configuration);
+            newRecording.setName(settingsName);
+            newRecording.enable(AuthValidationEvent.class);
+            newRecording.enable(BodyRewriteEvent.class);
+            newRecording.enable(RouteResolutionEvent.class);
+            newRecording.enable(UpstreamExchangeEvent.class);
+            newRecording.setToDisk(true);
+            newRecording.setDuration(duration);
+            newRecording.setDestination(file);
+            newRecording.start();
+            recording = newRecording;
+            recordingFile = file;
+        } catch (IOException e) {
+            log.error("Failed to start JFR recording in {}", directory, e);
+            return new WebEndpointResponse<>(Map.of("error", "Failed to start recording: " + e.getMessage()),
+                    WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+        log.info("Started JFR recording {} with {} settings for {}s", recordingFile, settingsName, duration.toSeconds());
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            // Writes the recording to its destination
+            recording.stop();
+            log.info("Stopped JFR recording {}", recordingFile);
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector String file) {
+        if (!FILE_NAME.matcher(file).matches()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path path = directory.resolve(file);
+        if (recording != null && path.equals(recordingFile) && isActive(recording.getState())) {
+            // Not written until the recording stops
+            return new WebEndpointResponse<>(HttpStatus.CONFLICT.value());
+        }
+        if (!Files.isRegularFile(path)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(path), WebEndpointResponse.STATUS_OK);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closeRecording();
+    }
+
+    private static boolean isActive(RecordingState state) {
+        return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+    }
+
+    /**
+     * Closes the previous recording; stopping it first writes it to disk if it is still running.
+     */
+    private void closeRecording() {
+        if (recording == null) {
+            return;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        recording.close();
+        recording = null;
+        recordingFile = null;
+    }
+
+    private List<Path> listFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Failed to list JFR recordings in {}: {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Deletes all but the newest {@code keep} recordings.
+     */
+    private void pruneFiles(int keep) {
+        List<Path> files = new ArrayList<>(listFiles());
+        for (Path file : files.subList(Math.min(keep, files.size()), files.size())) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete JFR recording {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
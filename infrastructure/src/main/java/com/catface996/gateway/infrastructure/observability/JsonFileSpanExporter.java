@@ -0,0 +1,131 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Span exporter that appends spans to a local file, one JSON object per line.
+ * <p>
+ * Each line has the span's trace, span and parent IDs, name, kind, start time and duration in
+ * microseconds, status and attributes. Once the file reaches {@code maxFileBytes} it is renamed
+ * with a ".1" suffix (replacing the previous one) and a new file is started, so at most twice that
+ * is kept on disk.
+ */
+@Slf4j
+public class JsonFileSpanExporter implements SpanExporter {
+
+    private final Path file;
+    private final Path rolledFile;
+    private final long maxFileBytes;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+    private long fileBytes;
+
+    public JsonFileSpanExporter(Path file, long maxFileBytes, ObjectMapper objectMapper) {
+        this.file = file.toAbsolutePath();
+        this.rolledFile = this.file.resolveSibling(this.file.getFileName() + ".1");
+        this.maxFileBytes = maxFileBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                String line = objectMapper.writeValueAsString(toJson(span));
+                // Characters, not bytes: close enough for rolling, as span JSON is almost all ASCII
+                BufferedWriter out = writer(line.length() + 1);
+                out.write(line);
+                out.newLine();
+                fileBytes += line.length() + 1;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Writing spans to {} failed: {}", file, e.getMessage());
+            closeWriter();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private BufferedWriter writer(int lineBytes) throws IOException {
+        if (writer != null && fileBytes + lineBytes > maxFileBytes) {
+            closeWriter();
+            Files.move(file, rolledFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (writer == null) {
+            Files.createDirectories(file.getParent());
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            fileBytes = Files.size(file);
+        }
+        return writer;
+    }
+
+    private static Map<String, Object> toJson(SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        SpanContext parent = span.getParentSpanContext();
+        if (parent.isValid()) {
+            json.put("parentSpanId", parent.getSpanId());
+        }
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startMicros", span.getStartEpochNanos() / 1000);
+        json.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000);
+        json.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((AttributeKey<?> key, Object value) -> attributes.put(key.getKey(), value));
+        json.put("attributes", attributes);
+        return json;
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        closeWriter();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("Closing span file {} failed: {}", file, e.getMessage());
+        }
+        writer = null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Cloud Gateway's route lookup, recording a {@link RouteResolutionEvent} per request while
+ * JFR records them. Otherwise identical to {@link RoutePredicateHandlerMapping}, which it replaces.
+ */
+@Component
+public class RecordingRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping {
+
+    public RecordingRoutePredicateHandlerMapping(
+            FilteringWebHandler webHandler,
+            RouteLocator routeLocator,
+            GlobalCorsProperties globalCorsProperties,
+            Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RouteResolutionEvent event = RouteResolutionEvent.start();
+        if (event == null) {
+            return super.lookupRoute(exchange);
+        }
+        return super.lookupRoute(exchange)
+                .doOnSuccess(route -> event.finish(exchange.getRequest().getMethod().name(),
+                        exchange.getRequest().getURI().getPath(), route != null ? route.getId() : null));
+    }
+}
@@ -0,0 +1,132 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timestamps of the points a request passes on its way through the gateway.
+ * <p>
+ * A timeline is started by {@code AccessLogFilter} through the {@link SlowRequestLog} and put on the
+ * exchange; filters and backend client hooks mark points with {@link #mark(ServerWebExchange, Mark)}
+ * or, where only the Reactor context is at hand, {@link #mark(ContextView, Mark)}. Both look the
+ * timeline up on the exchange, so marks arriving after the request completed (a cancelled backend
+ * call answering late) find nothing. Points are marked from whichever thread passes them, and a
+ * late mark may still race the completion that reads them, so they are kept in an atomic array.
+ * <p>
+ * Marks are overwritten when a point is passed again, so after retries the upstream phases are
+ * those of the last attempt.
+ */
+public final class RequestTimeline {
+
+    /**
+     * Exchange attribute holding the request's timeline.
+     */
+    public static final String TIMELINE_ATTR = RequestTimeline.class.getName();
+
+    /**
+     * Points on a request's way through the gateway.
+     */
+    public enum Mark {
+        RECEIVED,
+        AUTH_START,
+        AUTH_END,
+        BODY_START,
+        BODY_END,
+        UPSTREAM_START,
+        UPSTREAM_CONNECTED,
+        UPSTREAM_HEADERS,
+        COMPLETED
+    }
+
+    private final AtomicLongArray marks = new AtomicLongArray(Mark.values().length);
+
+    RequestTimeline() {
+    }
+
+    /**
+     * Marks a point of the exchange's request now, if it has a timeline.
+     */
+    public static void mark(ServerWebExchange exchange, Mark mark) {
+        RequestTimeline timeline = exchange.getAttribute(TIMELINE_ATTR);
+        if (timeline != null) {
+            timeline.mark(mark);
+        }
+    }
+
+    /**
+     * Marks a point of the request whose exchange is in the Reactor context, if it has a timeline.
+     */
+    public static void mark(ContextView context, Mark mark) {
+        ServerWebExchange exchange = context.getOrDefault(ServerWebExchange.class, null);
+        if (exchange != null) {
+            mark(exchange, mark);
+        }
+    }
+
+    /**
+     * Marks the start of the upstream call and makes the exchange available to the backend client
+     * hooks, which mark {@link Mark#UPSTREAM_CONNECTED} and {@link Mark#UPSTREAM_HEADERS}.
+     *
+     * @param exchange the exchange being proxied
+     * @param call     the upstream call
+     * @return the call, carrying the exchange in its context if the request has a timeline
+     */
+    public static <T> Mono<T> trackUpstream(ServerWebExchange exchange, Mono<T> call) {
+        RequestTimeline timeline = exchange.getAttribute(TIMELINE_ATTR);
+        if (timeline == null) {
+            return call;
+        }
+        timeline.mark(Mark.UPSTREAM_START);
+        return call.contextWrite(context -> context.put(ServerWebExchange.class, exchange));
+    }
+
+    void mark(Mark mark) {
+        mark(mark, System.nanoTime());
+    }
+
+    void mark(Mark mark, long nanos) {
+        marks.set(mark.ordinal(), nanos);
+    }
+
+    long durationNanos() {
+        return marks.get(Mark.COMPLETED.ordinal()) - marks.get(Mark.RECEIVED.ordinal());
+    }
+
+    /**
+     * Returns the duration of each phase the request went through, in milliseconds.
+     * <p>
+     * A phase that started but never ended (a backend timing out before answering) lasts until the
+     * request completed. Time not spent in any phase is reported as "gateway".
+     */
+    Map<String, Long> phasesMillis() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        long covered = 0;
+        covered += phase(phases, "auth", Mark.AUTH_START, Mark.AUTH_END);
+        covered += phase(phases, "body", Mark.BODY_START, Mark.BODY_END);
+        covered += phase(phases, "upstream-acquire", Mark.UPSTREAM_START, Mark.UPSTREAM_CONNECTED);
+        covered += phase(phases, "upstream-ttfb", Mark.UPSTREAM_CONNECTED, Mark.UPSTREAM_HEADERS);
+        covered += phase(phases, "response-write", Mark.UPSTREAM_HEADERS, Mark.COMPLETED);
+        phases.put("gateway", TimeUnit.NANOSECONDS.toMillis(Math.max(0, durationNanos() - covered)));
+        return phases;
+    }
+
+    private long phase(Map<String, Long> phases, String name, Mark start, Mark end) {
+        long startNanos = marks.get(start.ordinal());
+        if (startNanos == 0) {
+            return 0;
+        }
+        long endNanos = marks.get(end.ordinal());
+        if (endNanos == 0) {
+            endNanos = marks.get(Mark.COMPLETED.ordinal());
+        }
+        long nanos = Math.max(0, endNanos - startNanos);
+        phases.put(name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        return nanos;
+    }
+}
@@ -0,0 +1,60 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for matching a request against the route predicates.
+ */
+@Name("com.catface996.gateway.RouteResolution")
+@Label("Route Resolution")
+@Category({"Gateway", "Routing"})
+@Description("Lookup of the route matching a request")
+@StackTrace(false)
+public class RouteResolutionEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Route")
+    @Description("The matched route, or null if none matched")
+    String route;
+
+    /**
+     * Begins an event if JFR records it.
+     *
+     * @return the event, or null if JFR is not recording route resolutions
+     */
+    public static RouteResolutionEvent start() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        RouteResolutionEvent event = new RouteResolutionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the event.
+     */
+    public void finish(String method, String path, String route) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.path = path;
+            this.route = route;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A request that took at least {@code gateway.slow-request.threshold-ms}, with where its time went.
+ *
+ * @param requestId  the request ID
+ * @param traceId    the W3C trace ID, or null if the request was not traced
+ * @param timestamp  when the request was received
+ * @param method     the HTTP method
+ * @param path       the request path
+ * @param route      the matched route, or "unknown"
+ * @param status     the response status, or 0 if none was set
+ * @param durationMs total time in the gateway
+ * @param phasesMs   time per phase ("auth", "body", "upstream-acquire", "upstream-ttfb",
+ *                   "response-write", "gateway" for the rest), phases not reached omitted
+ */
+public record SlowRequest(String requestId, String traceId, Instant timestamp, String method, String path,
+                          String route, int status, long durationMs, Map<String, Long> phasesMs) {
+
+    /**
+     * Returns the phases as "name=12ms name=3ms ...".
+     */
+    public String describePhases() {
+        StringBuilder description = new StringBuilder();
+        phasesMs.forEach((phase, ms) -> {
+            if (!description.isEmpty()) {
+                description.append(' ');
+            }
+            description.append(phase).append('=').append(ms).append("ms");
+        });
+        return description.toString();
+    }
+}
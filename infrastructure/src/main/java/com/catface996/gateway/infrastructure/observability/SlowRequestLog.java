@@ -0,0 +1,104 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Captures phase timelines of requests and keeps the most recent slow ones.
+ * <p>
+ * {@code AccessLogFilter} {@link #start starts} a {@link RequestTimeline} for every request and
+ * {@link #finish finishes} it when the response is complete. Requests that took at least
+ * {@code gateway.slow-request.threshold-ms} are turned into a {@link SlowRequest}, counted in
+ * {@code gateway.slow-requests}, and kept in a ring of the last {@code gateway.slow-request.ring-size},
+ * served by the {@code slowrequests} actuator endpoint.
+ */
+@Slf4j
+@Component
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<SlowRequest> ring;
+    private final AtomicLong recorded = new AtomicLong();
+    private final Counter slowCounter;
+    private final boolean enabled;
+    private final long thresholdNanos;
+
+    public SlowRequestLog(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.slow-request.enabled:true}") boolean enabled,
+            @Value("${gateway.slow-request.threshold-ms:1000}") long thresholdMs,
+            @Value("${gateway.slow-request.ring-size:100}") int ringSize) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.ring = new AtomicReferenceArray<>(Math.max(1, ringSize));
+        this.slowCounter = Counter.builder("gateway.slow-requests")
+                .description("Requests that took at least the slow request threshold")
+                .register(meterRegistry);
+        log.info("Slow request log initialized, enabled: {}, threshold: {}ms, ring size: {}",
+                enabled, thresholdMs, ringSize);
+    }
+
+    /**
+     * Starts the timeline of a request and puts it on the exchange.
+     *
+     * @param exchange    the exchange
+     * @param startNanos  the {@link System#nanoTime()} at which the request was received
+     * @return the timeline, or null if slow requests are not tracked
+     */
+    public RequestTimeline start(ServerWebExchange exchange, long startNanos) {
+        if (!enabled) {
+            return null;
+        }
+        RequestTimeline timeline = new RequestTimeline();
+        timeline.mark(RequestTimeline.Mark.RECEIVED, startNanos);
+        exchange.getAttributes().put(RequestTimeline.TIMELINE_ATTR, timeline);
+        return timeline;
+    }
+
+    /**
+     * Completes a request's timeline and takes it off the exchange.
+     *
+     * @return the slow request record if the request reached the threshold, null otherwise
+     */
+    public SlowRequest finish(ServerWebExchange exchange, RequestTimeline timeline, Instant startTime,
+                              String requestId, String traceId, String method, String path, String route,
+                              int status) {
+        exchange.getAttributes().remove(RequestTimeline.TIMELINE_ATTR);
+        timeline.mark(RequestTimeline.Mark.COMPLETED);
+        SlowRequest slowRequest = null;
+        long durationNanos = timeline.durationNanos();
+        if (durationNanos >= thresholdNanos) {
+            slowRequest = new SlowRequest(requestId, traceId, startTime, method, path, route, status,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), timeline.phasesMillis());
+            ring.set((int) (recorded.getAndIncrement() % ring.length()), slowRequest);
+            slowCounter.increment();
+        }
+        return slowRequest;
+    }
+
+    /**
+     * Returns the most recent slow requests, newest first.
+     */
+    public List<SlowRequest> recent() {
+        long end = recorded.get();
+        long start = Math.max(0, end - ring.length());
+        List<SlowRequest> recent = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            SlowRequest slowRequest = ring.get((int) (i % ring.length()));
+            if (slowRequest != null) {
+                recent.add(slowRequest);
+            }
+        }
+        return recent;
+    }
+}
@@ -0,0 +1,367 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Span processor that decides which traces to keep once they are complete (tail-based sampling).
+ * <p>
+ * Every request is traced (W3C trace context, {@code management.tracing.sampling.probability: 1.0}),
+ * but ended spans are only buffered per trace. When the trace's local root span ends (the server
+ * span of the request), the whole trace is:
+ * <ul>
+ *     <li>Kept if any of its spans failed: a server error outcome or status, or an exception</li>
+ *     <li>Kept if the root span took at least {@code gateway.tracing.tail-sampling.slow-threshold-ms}</li>
+ *     <li>Otherwise kept for a {@code gateway.tracing.tail-sampling.sample-rate} fraction of traces,
+ *     chosen from the trace ID, so every gateway instance makes the same choice for a trace</li>
+ * </ul>
+ * Kept traces are queued and handed to the exporter ({@code gateway.tracing.export.type}: a JSON
+ * lines {@link JsonFileSpanExporter file}, an {@link InMemorySpanCollector in-memory collector} or
+ * none) every {@code gateway.tracing.export.interval-ms} on a dedicated thread, never on an event loop.
+ * Discarded traces are never converted to span data, so the common case costs little more than
+ * buffering a reference.
+ * <p>
+ * All buffers are bounded: at most {@code max-traces} traces pending and {@code max-spans-per-trace}
+ * spans each, and traces whose root has not ended within {@code trace-timeout-ms} are dropped.
+ * Decisions are counted in {@code gateway.tracing.traces{decision}}, drops in
+ * {@code gateway.tracing.dropped{reason}}.
+ */
+@Slf4j
+@Component
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> STATUS = AttributeKey.stringKey("status");
+    private static final AttributeKey<String> HTTP_STATUS_CODE = AttributeKey.stringKey("http.status_code");
+    private static final AttributeKey<String> EXCEPTION = AttributeKey.stringKey("exception");
+    private static final AttributeKey<String> ERROR = AttributeKey.stringKey("error");
+
+    private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Queue<ReadableSpan> exportQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger exportQueueSize = new AtomicInteger();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final SpanExporter exporter;
+    private final Scheduler scheduler;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final long sampleBound;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long traceTimeoutNanos;
+    private final int maxQueuedSpans;
+    private final Counter errorTraces;
+    private final Counter slowTraces;
+    private final Counter sampledTraces;
+    private final Counter discardedTraces;
+    private final Counter bufferFull;
+    private final Counter traceTooLarge;
+    private final Counter incomplete;
+    private final Counter exportQueueFull;
+
+    public TailSamplingSpanProcessor(
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${gateway.tracing.tail-sampling.enabled:true}") boolean enabled,
+            @Value("${gateway.tracing.tail-sampling.slow-threshold-ms:1000}") long slowThresholdMs,
+            @Value("${gateway.tracing.tail-sampling.sample-rate:0.01}") double sampleRate,
+            @Value("${gateway.tracing.tail-sampling.max-traces:10000}") int maxTraces,
+            @Value("${gateway.tracing.tail-sampling.max-spans-per-trace:64}") int maxSpansPerTrace,
+            @Value("${gateway.tracing.tail-sampling.trace-timeout-ms:30000}") long traceTimeoutMs,
+            @Value("${gateway.tracing.export.type:file}") String exportType,
+            @Value("${gateway.tracing.export.file:logs/traces.jsonl}") String exportFile,
+            @Value("${gateway.tracing.export.max-file-bytes:104857600}") long maxFileBytes,
+            @Value("${gateway.tracing.export.memory-capacity:10000}") int memoryCapacity,
+            @Value("${gateway.tracing.export.interval-ms:1000}") long exportIntervalMs,
+            @Value("${gateway.tracing.export.max-queued-spans:10000}") int maxQueuedSpans) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleBound = (long) (Math.max(0, Math.min(1, sampleRate)) * Long.MAX_VALUE);
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.traceTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(traceTimeoutMs);
+        this.maxQueuedSpans = maxQueuedSpans;
+        this.errorTraces = traceCounter(meterRegistry, "error");
+        this.slowTraces = traceCounter(meterRegistry, "slow");
+        this.sampledTraces = traceCounter(meterRegistry, "sampled");
+        this.discardedTraces = traceCounter(meterRegistry, "discarded");
+        this.bufferFull = dropCounter(meterRegistry, "buffer-full");
+        this.traceTooLarge = dropCounter(meterRegistry, "trace-too-large");
+        this.incomplete = dropCounter(meterRegistry, "incomplete");
+        this.exportQueueFull = dropCounter(meterRegistry, "export-queue-full");
+        if (!enabled) {
+            this.exporter = SpanExporter.composite();
+            this.scheduler = null;
+            log.info("Tail sampling span processor initialized, enabled: false");
+            return;
+        }
+
+        this.exporter = createExporter(exportType, exportFile, maxFileBytes, memoryCapacity, objectMapper);
+        Gauge.builder("gateway.tracing.pending", pendingCount, AtomicInteger::get)
+                .description("Traces buffered until their root span ends")
+                .register(meterRegistry);
+        this.scheduler = Schedulers.newSingle("gateway-trace-export", true);
+        scheduler.schedulePeriodically(this::exportAndSweep, exportIntervalMs, exportIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Tail sampling span processor initialized, enabled: true, slow threshold: {}ms, sample rate: {}, "
+                + "export: {}", slowThresholdMs, sampleRate, exportType);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the exporter kept traces are handed to, e.g. the {@link InMemorySpanCollector} in tests.
+     */
+    public SpanExporter getExporter() {
+        return exporter;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        // Decisions are only made once spans end
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!enabled || shutdown.get()) {
+            return;
+        }
+        String traceId = span.getSpanContext().getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        boolean root = !parent.isValid() || parent.isRemote();
+        PendingTrace trace = root ? pending.remove(traceId) : pending.get(traceId);
+        if (root) {
+            if (trace != null) {
+                pendingCount.decrementAndGet();
+            }
+            decide(span, trace);
+            return;
+        }
+        if (trace == null) {
+            if (pendingCount.incrementAndGet() > maxTraces) {
+                pendingCount.decrementAndGet();
+                bufferFull.increment();
+                return;
+            }
+            PendingTrace created = new PendingTrace(System.nanoTime());
+            trace = pending.putIfAbsent(traceId, created);
+            if (trace == null) {
+                trace = created;
+            } else {
+                pendingCount.decrementAndGet();
+            }
+        }
+        if (!trace.add(span, maxSpansPerTrace)) {
+            traceTooLarge.increment();
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    private void decide(ReadableSpan root, PendingTrace trace) {
+        Counter decision;
+        if (isError(root) || (trace != null && trace.error)) {
+            decision = errorTraces;
+        } else if (root.getLatencyNanos() >= slowThresholdNanos) {
+            decision = slowTraces;
+        } else if (isSampled(root.getSpanContext().getTraceId())) {
+            decision = sampledTraces;
+        } else {
+            discardedTraces.increment();
+            return;
+        }
+        decision.increment();
+        if (trace != null) {
+            synchronized (trace) {
+                trace.spans.forEach(this::enqueue);
+                trace.spans.clear();
+            }
+        }
+        enqueue(root);
+    }
+
+    private void enqueue(ReadableSpan span) {
+        if (exportQueueSize.incrementAndGet() > maxQueuedSpans) {
+            exportQueueSize.decrementAndGet();
+            exportQueueFull.increment();
+            return;
+        }
+        exportQueue.offer(span);
+    }
+
+    /**
+     * Keeps a trace if the low 63 bits of its ID fall below the sample rate's share of the range.
+     */
+    private boolean isSampled(String traceId) {
+        return (Long.parseUnsignedLong(traceId, 16, 32, 16) & Long.MAX_VALUE) < sampleBound;
+    }
+
+    private static boolean isError(ReadableSpan span) {
+        String outcome = span.getAttribute(OUTCOME);
+        if ("SERVER_ERROR".equals(outcome)) {
+            return true;
+        }
+        String exception = span.getAttribute(EXCEPTION);
+        if (exception != null && !"none".equalsIgnoreCase(exception)) {
+            return true;
+        }
+        if (span.getAttribute(ERROR) != null) {
+            return true;
+        }
+        String status = span.getAttribute(STATUS);
+        if (status == null) {
+            status = span.getAttribute(HTTP_STATUS_CODE);
+        }
+        return status != null && status.length() == 3 && status.charAt(0) == '5';
+    }
+
+    private void exportAndSweep() {
+        try {
+            export();
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("Exporting sampled traces failed: {}", e.getMessage());
+        }
+    }
+
+    private void export() {
+        List<SpanData> batch = new ArrayList<>();
+        ReadableSpan span;
+        while ((span = exportQueue.poll()) != null) {
+            exportQueueSize.decrementAndGet();
+            batch.add(span.toSpanData());
+        }
+        if (!batch.isEmpty()) {
+            exporter.export(batch).join(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Drops traces whose root span has not ended in time, e.g. spans that ended after the request
+     * or whose request was cancelled before it was traced.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Iterator<PendingTrace> it = pending.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().createdNanos >= traceTimeoutNanos) {
+                it.remove();
+                pendingCount.decrementAndGet();
+                incomplete.increment();
+            }
+        }
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        if (scheduler == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        CompletableResultCode result = new CompletableResultCode();
+        scheduler.schedule(() -> {
+            exportAndSweep();
+            exporter.flush().whenComplete(result::succeed);
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (!shutdown.compareAndSet(false, true) || scheduler == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        CompletableResultCode result = new CompletableResultCode();
+        scheduler.schedule(() -> {
+            exportAndSweep();
+            exporter.shutdown().whenComplete(result::succeed);
+            scheduler.dispose();
+        });
+        return result;
+    }
+
+    private static SpanExporter createExporter(String type, String file, long maxFileBytes, int memoryCapacity,
+                                               ObjectMapper objectMapper) {
+        return switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case "file" -> new JsonFileSpanExporter(Path.of(file), maxFileBytes, objectMapper);
+            case "memory" -> new InMemorySpanCollector(memoryCapacity);
+            case "none" -> SpanExporter.composite();
+            default -> throw new IllegalArgumentException("Unknown gateway.tracing.export.type: " + type);
+        };
+    }
+
+    private static Counter traceCounter(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("gateway.tracing.traces")
+                .tag("decision", decision)
+                .description("Completed traces by tail-sampling decision")
+                .register(meterRegistry);
+    }
+
+    private static Counter dropCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gateway.tracing.dropped")
+                .tag("reason", reason)
+                .description("Spans or traces dropped by the tail sampler")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ended spans of a trace whose root span is still running.
+     */
+    private static final class PendingTrace {
+
+        private final long createdNanos;
+        private final List<ReadableSpan> spans = new ArrayList<>(4);
+        private volatile boolean error;
+
+        private PendingTrace(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+
+        private synchronized boolean add(ReadableSpan span, int maxSpans) {
+            if (isError(span)) {
+                error = true;
+            }
+            if (spans.size() >= maxSpans) {
+                return false;
+            }
+            spans.add(span);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Gateway web handler that times every filter of the chain, global and route filters alike.
+ * <p>
+ * With {@code gateway.filter-timing.enabled}, each filter is wrapped so that the time from calling
+ * it until its result completes, minus the time its downstream chain took, is recorded in
+ * {@code gateway.filter.time{filter}}. That is the filter's own latency, including anything it
+ * waits on itself (the auth service for {@code AuthenticationGatewayFilter}, the request body for
+ * {@code OperatorIdInjectionFilter}). The routing filters are last in the chain, so their time is
+ * the upstream call ({@code BackendRoutingFilter}, {@code NettyRoutingFilter}), and the time of
+ * {@code NettyWriteResponseFilter} is writing the response to the client.
+ * <p>
+ * Filters that run their downstream concurrently (hedging) get the overlap subtracted twice; their
+ * time is floored at zero. Disabled, the chain is built exactly as Spring Cloud Gateway builds it.
+ * <p>
+ * The wrapped filters of a route are cached by route ID and reused for as long as the route's
+ * filters are the same instances, so requests neither re-wrap filters nor look up timers; a route
+ * refresh that replaces the filters rebuilds the entry.
+ */
+@Slf4j
+@Component
+public class TimedFilteringWebHandler extends FilteringWebHandler {
+
+    private final Map<String, TimedFilters> timedFilters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public TimedFilteringWebHandler(
+            List<GlobalFilter> globalFilters,
+            GatewayProperties gatewayProperties,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.filter-timing.enabled:false}") boolean enabled) {
+        super(globalFilters, gatewayProperties.isRouteFilterCacheEnabled());
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        log.info("Filter timing initialized, enabled: {}", enabled);
+    }
+
+    @Override
+    protected List<GatewayFilter> getAllFilters(Route route) {
+        List<GatewayFilter> filters = super.getAllFilters(route);
+        if (!enabled) {
+            return filters;
+        }
+        TimedFilters cached = timedFilters.get(route.getId());
+        if (cached != null && cached.wraps(filters)) {
+            return cached.timed();
+        }
+        List<GatewayFilter> timed = new ArrayList<>(filters.size());
+        for (GatewayFilter filter : filters) {
+            TimedGatewayFilter wrapper = new TimedGatewayFilter(filter, timer(filterName(filter)));
+            timed.add(filter instanceof Ordered ordered ? new OrderedGatewayFilter(wrapper, ordered.getOrder()) : wrapper);
+        }
+        timedFilters.put(route.getId(), new TimedFilters(filters, List.copyOf(timed)));
+        return timed;
+    }
+
+    private Timer timer(String filterName) {
+        return Timer.builder("gateway.filter.time")
+                .tag("filter", filterName)
+                .description("Time spent in a gateway filter, excluding its downstream chain")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the class name of the filter behind Spring Cloud Gateway's adapters, or for filters
+     * built by a factory as a lambda or anonymous class, the factory's name ("StripPrefix").
+     */
+    private static String filterName(GatewayFilter filter) {
+        Object target = filter instanceof OrderedGatewayFilter ordered ? ordered.getDelegate() : filter;
+        Class<?> type = target instanceof DecoratingProxy proxy ? proxy.getDecoratedClass() : ClassUtils.getUserClass(target);
+        if (!type.isAnonymousClass() && !type.isHidden()) {
+            return type.getSimpleName();
+        }
+        // Factory filters describe themselves as "[Name key = value, ...]"
+        String description = target.toString();
+        if (description.startsWith("[")) {
+            int end = 1;
+            while (end < description.length() && Character.isJavaIdentifierPart(description.charAt(end))) {
+                end++;
+            }
+            if (end > 1) {
+                return description.substring(1, end);
+            }
+        }
+        return type.getName();
+    }
+
+    /**
+     * The filters of a route and their timed wrappers.
+     */
+    private record TimedFilters(List<GatewayFilter> filters, List<GatewayFilter> timed) {
+
+        /**
+         * Returns whether the wrappers were built for exactly these filter instances.
+         */
+        boolean wraps(List<GatewayFilter> current) {
+            if (current.size() != filters.size()) {
+                return false;
+            }
+            for (int i = 0; i < current.size(); i++) {
+                if (current.get(i) != filters.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Filter wrapper recording the delegate's time minus its downstream chain's time.
+     */
+    private static final class TimedGatewayFilter implements GatewayFilter {
+
+        private final GatewayFilter delegate;
+        private final Timer timer;
+
+        private TimedGatewayFilter(GatewayFilter delegate, Timer timer) {
+            this.delegate = delegate;
+            this.timer = timer;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            long start = System.nanoTime();
+            TimedChain downstream = new TimedChain(chain);
+            return delegate.filter(exchange, downstream)
+                    .doFinally(signal -> timer.record(
+                            Math.max(0, System.nanoTime() - start - downstream.downstreamNanos), TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public String toString() {
+            return "Timed" + delegate;
+        }
+    }
+
+    /**
+     * Chain handed to a timed filter; adds up how long each call into the rest of the chain ran.
+     */
+    private static final class TimedChain implements GatewayFilterChain {
+
+        private static final AtomicLongFieldUpdater<TimedChain> DOWNSTREAM_NANOS =
+                AtomicLongFieldUpdater.newUpdater(TimedChain.class, "downstreamNanos");
+
+        private final GatewayFilterChain chain;
+        private volatile long downstreamNanos;
+
+        private TimedChain(GatewayFilterChain chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return chain.filter(exchange)
+                        .doFinally(signal -> DOWNSTREAM_NANOS.addAndGet(this, System.nanoTime() - start));
+            });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.catface996.gateway.infrastructure.observability;
+
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * JFR event for a call to a backend, from sending the request until its response headers arrived.
+ */
+@Name("com.catface996.gateway.UpstreamExchange")
+@Label("Upstream Exchange")
+@Category({"Gateway", "Upstream"})
+@Description("Request to a backend service, until its response headers arrived")
+@StackTrace(false)
+public class UpstreamExchangeEvent extends Event {
+
+    @Label("Backend")
+    String backend;
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Outcome")
+    @Description("ON_COMPLETE, ON_ERROR or CANCEL")
+    String outcome;
+
+    /**
+     * Records a JFR event for an upstream call if JFR is recording upstream exchanges.
+     *
+     * @param exchange the exchange being proxied
+     * @param call     the upstream call, completing once the response headers are applied to the exchange
+     * @return the call
+     */
+    public static <T> Mono<T> record(ServerWebExchange exchange, Mono<T> call) {
+        if (!FlightRecorder.isInitialized()) {
+            return call;
+        }
+        UpstreamExchangeEvent event = new UpstreamExchangeEvent();
+        if (!event.isEnabled()) {
+            return call;
+        }
+        event.begin();
+        return call.doFinally(signal -> event.finish(exchange, signal));
+    }
+
+    private void finish(ServerWebExchange exchange, SignalType signal) {
+        end();
+        if (shouldCommit()) {
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            this.backend = RouteMetadataUtils.getBackendId(exchange);
+            this.method = exchange.getRequest().getMethod().name();
+            this.path = exchange.getRequest().getURI().getPath();
+            this.status = statusCode != null ? statusCode.value() : 0;
+            this.outcome = signal.name();
+            commit();
+        }
+    }
+}
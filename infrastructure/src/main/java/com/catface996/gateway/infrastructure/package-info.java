@@ -4,8 +4,17 @@
  * This module contains technical implementations:
  * <ul>
  *     <li>{@code auth.client} - Auth service HTTP client</li>
- *     <li>{@code filter} - Gateway filter implementations (Authentication, OperatorIdInjection, AccessLog)</li>
- *     <li>{@code config} - Infrastructure configurations (WebClient, GlobalExceptionHandler)</li>
+ *     <li>{@code filter} - Gateway filter implementations (Authentication, OperatorIdInjection, AccessLog, EventLoopAdmission, StreamingResponse, ResponseCompression, ResponseCache, RequestCollapsing, Idempotency, CircuitBreaker, ConcurrencyLimit, Retry, Hedging, BackendRouting, RateLimit)</li>
+ *     <li>{@code config} - Infrastructure configurations (WebClient, Server, Transport, GlobalExceptionHandler, Resilience, Tracing)</li>
+ *     <li>{@code resilience} - Backend and gateway protection components (retry budgets, adaptive concurrency limiters, event loop lag monitor)</li>
+ *     <li>{@code ratelimit} - In-memory token bucket store for rate limiting</li>
+ *     <li>{@code cache} - Off-heap response buffers, the response cache and the idempotency store</li>
+ *     <li>{@code compression} - Pooled gzip/deflate compressors for response compression</li>
+ *     <li>{@code upstream} - Per-backend HTTP clients, connection pools and their pre-warming, and backend DNS resolution</li>
+ *     <li>{@code observability} - Per-filter timing of the gateway filter chain, request phase timelines, the slow request log, JFR events and recordings, tail-sampled tracing</li>
+ *     <li>{@code warmup} - JIT warm-up with synthetic traffic through the full filter chain before readiness</li>
+ *     <li>{@code error} - Error responses from pre-encoded templates and rate-limited, aggregated error logging</li>
+ *     <li>{@code support} - Shared helpers for route metadata, client IPs and trusted proxies, Cache-Control, streamed responses, upstream errors, trace context and a cached clock</li>
  * </ul>
  * <p>
  * This module depends on application, domain, and common modules.
@@ -0,0 +1,144 @@
+package com.catface996.gateway.infrastructure.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store of rate-limit token buckets, one per key.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA
+ * form of a token bucket): consuming a token advances it by one emission interval, and a
+ * request is allowed while it stays within {@code burstCapacity} intervals of now. This makes
+ * every check a single lock-free CAS with no background refill.
+ * <p>
+ * Buckets are spread over independent stripes so idle-key eviction sweeps one stripe at a time.
+ * A bucket whose arrival time has fallen behind the clock is full, i.e. indistinguishable from
+ * a new bucket, so evicting it never changes a limiting decision.
+ */
+@Slf4j
+@Component
+public class TokenBucketStore implements DisposableBean {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final int stripeMask;
+    private final long idleNanos;
+    private final Disposable evictionTask;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketStore(
+            @Value("${gateway.rate-limit.stripes:16}") int stripes,
+            @Value("${gateway.rate-limit.idle-eviction-ms:60000}") long idleEvictionMs) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.stripeMask = size - 1;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+        Duration sweepInterval = Duration.ofMillis(Math.max(1000, idleEvictionMs / size));
+        this.evictionTask = Schedulers.parallel().schedulePeriodically(new StripeSweeper(),
+                sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tries to take one token from the bucket identified by {@code key}.
+     *
+     * @param key           the bucket key (route and operator/client)
+     * @param replenishRate tokens added per second
+     * @param burstCapacity maximum number of tokens the bucket holds
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryConsume(String key, double replenishRate, int burstCapacity) {
+        long interval = (long) (NANOS_PER_SECOND / replenishRate);
+        long tolerance = interval * burstCapacity;
+        AtomicLong bucket = bucket(key);
+
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long allowAt = next - tolerance;
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Removes the buckets whose keys start with a prefix, e.g. all buckets of a route.
+     *
+     * @param keyPrefix the key prefix
+     */
+    public void removeByPrefix(String keyPrefix) {
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            stripe.keySet().removeIf(key -> key.startsWith(keyPrefix));
+        }
+    }
+
+    /**
+     * Returns the number of buckets currently held.
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[stripeIndex(key)];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // A new bucket starts full: its arrival time is not in the future
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+    }
+
+    private int stripeIndex(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    @Override
+    public void destroy() {
+        evictionTask.dispose();
+    }
+
+    /**
+     * Evicts idle buckets from one stripe per run, cycling through all stripes.
+     */
+    private class StripeSweeper implements Runnable {
+
+        private int next;
+
+        @Override
+        public void run() {
+            ConcurrentHashMap<String, AtomicLong> stripe = stripes[next];
+            next = (next + 1) & stripeMask;
+
+            // A request racing with the removal of its (full) bucket can gain at most one token
+            long idleBefore = System.nanoTime() - idleNanos;
+            int before = stripe.size();
+            stripe.values().removeIf(bucket -> bucket.get() - idleBefore < 0);
+            if (log.isTraceEnabled()) {
+                log.trace("Evicted {} idle rate-limit buckets", before - stripe.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.catface996.gateway.infrastructure.resilience;
+
+import com.catface996.gateway.common.exception.LoadSheddingException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+/**
+ * Adaptive concurrency limiter for a single backend service.
+ * <p>
+ * The limit follows the gradient algorithm: a long-term RTT average is compared with each
+ * new RTT sample, and the limit shrinks when latency rises above the baseline (queueing at the
+ * backend) and grows by roughly {@code sqrt(limit)} while latency stays flat. Failed calls
+ * shrink the limit multiplicatively.
+ * <p>
+ * Requests over the limit wait briefly in a bounded queue and are shed with
+ * {@link LoadSheddingException} when the queue is full or the wait expires. High-priority
+ * requests are admitted first and, when the queue is full, displace a normal-priority waiter,
+ * so they are the last to be shed.
+ * <p>
+ * Normal-priority requests wait in a {@link FairWaitQueue} with one bounded lane per flow
+ * (operator or client IP) and are admitted in weighted round-robin order, so one operator
+ * flooding a backend cannot monopolize the slots that free up. When the queue is full, an
+ * arrival displaces the newest waiter of the flow with the most requests queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Admission priority of a request.
+     */
+    public enum Priority {
+        NORMAL,
+        HIGH
+    }
+
+    private final String name;
+    private final Settings settings;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong shedCount = new AtomicLong();
+    private final ArrayDeque<Waiter> highWaiters = new ArrayDeque<>();
+    private final FairWaitQueue<Waiter> normalWaiters;
+
+    private volatile int queued;
+    private volatile double limit;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(String name, Settings settings, ToIntFunction<String> flowWeights) {
+        this.name = name;
+        this.settings = settings;
+        this.normalWaiters = new FairWaitQueue<>(settings.maxQueuePerFlow(), flowWeights);
+        this.limit = settings.initialLimit();
+    }
+
+    /**
+     * Acquires a permit, waiting in the queue if the backend is at its limit.
+     *
+     * @param priority the request's admission priority
+     * @param flow     the fairness key of the request, see {@code ClientIpUtils.getClientKey}
+     * @return a Mono emitting the permit, or failing with {@link LoadSheddingException} when shed
+     */
+    public Mono<Permit> acquire(Priority priority, String flow) {
+        Mono<Permit> permit = tryAcquireImmediately()
+                ? Mono.just(new Permit(this, System.nanoTime(), inFlight.get()))
+                : Mono.create(sink -> enqueue(new Waiter(sink, priority, flow)));
+        // A permit dropped because its subscriber has already gone gives its slot back
+        return permit.doOnDiscard(Permit.class, Permit::discard);
+    }
+
+    private boolean tryAcquireImmediately() {
+        // Queued requests go first, so newcomers may not overtake them
+        if (queued > 0) {
+            return false;
+        }
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void enqueue(Waiter waiter) {
+        Waiter shed = null;
+        String reason = "queue full";
+        synchronized (this) {
+            if (waiter.priority == Priority.NORMAL && normalWaiters.isFull(waiter.flow)) {
+                shed = waiter;
+                reason = "operator queue full";
+            } else if (queuedCount() >= settings.maxQueueSize()) {
+                // Full queue: make room at the expense of the flow with the most waiters
+                shed = waiter.priority == Priority.HIGH
+                        ? normalWaiters.displaceNewest()
+                        : normalWaiters.displaceFor(waiter.flow);
+                if (shed == null) {
+                    shed = waiter;
+                }
+            }
+            if (shed != waiter) {
+                if (waiter.priority == Priority.HIGH) {
+                    highWaiters.offer(waiter);
+                } else {
+                    normalWaiters.offer(waiter.flow, waiter);
+                }
+            }
+            queued = queuedCount();
+        }
+        if (shed != null) {
+            shed.shed(reason);
+        }
+        if (shed != waiter) {
+            waiter.startTimer();
+            drain();
+        }
+    }
+
+    /**
+     * Admits queued waiters while there is capacity below the limit.
+     */
+    private void drain() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                if (inFlight.get() >= (int) limit) {
+                    return;
+                }
+                next = highWaiters.poll();
+                if (next == null) {
+                    next = normalWaiters.poll();
+                }
+                if (next == null) {
+                    return;
+                }
+                queued = queuedCount();
+                inFlight.incrementAndGet();
+            }
+            if (!next.grant()) {
+                // Waiter already timed out or cancelled, give the slot back
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private synchronized boolean remove(Waiter waiter) {
+        boolean removed = waiter.priority == Priority.HIGH
+                ? highWaiters.remove(waiter)
+                : normalWaiters.remove(waiter.flow, waiter);
+        queued = queuedCount();
+        return removed;
+    }
+
+    private void release(long startNanos, int inFlightAtStart, boolean success) {
+        inFlight.decrementAndGet();
+        onSample(System.nanoTime() - startNanos, inFlightAtStart, success);
+        drain();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean success) {
+        double current = limit;
+        double next;
+        if (!success) {
+            next = current * settings.backoffRatio();
+        } else {
+            samples++;
+            if (samples == 1) {
+                longRttNanos = rttNanos;
+            } else {
+                double window = Math.min(samples, settings.longWindow());
+                longRttNanos += (rttNanos - longRttNanos) / window;
+            }
+            // Let the baseline recover quickly after a period of high latency
+            if (longRttNanos / rttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+            // Application-limited: too few requests to learn anything about the limit
+            if (inFlightAtStart < current / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, settings.rttTolerance() * longRttNanos / rttNanos));
+            next = current * gradient + Math.sqrt(current);
+            next = current * (1 - settings.smoothing()) + next * settings.smoothing();
+        }
+        limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), next));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getShedCount() {
+        return shedCount.get();
+    }
+
+    public synchronized int getQueuedFlows() {
+        return normalWaiters.flows();
+    }
+
+    private int queuedCount() {
+        return highWaiters.size() + normalWaiters.size();
+    }
+
+    /**
+     * Tuning parameters shared by all backend limiters.
+     *
+     * @param initialLimit  limit before any RTT has been measured
+     * @param minLimit      lower bound of the limit
+     * @param maxLimit      upper bound of the limit
+     * @param maxQueueSize  maximum number of requests waiting for a permit
+     * @param maxQueuePerFlow maximum number of normal-priority requests waiting per operator or client
+     * @param maxQueueWaitMs maximum time a request waits before it is shed
+     * @param rttTolerance  how much the RTT may exceed the baseline before the limit shrinks
+     * @param smoothing     weight of each new limit estimate (0-1)
+     * @param longWindow    number of samples in the long-term RTT average
+     * @param backoffRatio  factor applied to the limit after a failed call
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, int maxQueueSize, int maxQueuePerFlow,
+                           long maxQueueWaitMs, double rttTolerance, double smoothing, int longWindow,
+                           double backoffRatio) {
+    }
+
+    /**
+     * A granted slot; must be released exactly once when the upstream call finishes.
+     */
+    public static final class Permit {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long startNanos, int inFlightAtStart) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the slot and feeds the call's RTT into the limit.
+         *
+         * @param success false if the call failed or overloaded the backend
+         */
+        public void release(boolean success) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(startNanos, inFlightAtStart, success);
+            }
+        }
+
+        /**
+         * Releases the slot without recording a sample, for calls that never reached the backend.
+         */
+        public void discard() {
+            if (released.compareAndSet(false, true)) {
+                limiter.inFlight.decrementAndGet();
+                limiter.drain();
+            }
+        }
+    }
+
+    /**
+     * A request waiting for a permit.
+     * <p>
+     * The waiter ends exactly once: granted, shed or cancelled. A grant publishes its permit in the
+     * same step that ends the waiter, so a cancellation racing the grant always finds the permit and
+     * discards it; a permit nobody receives never holds on to its slot.
+     */
+    private final class Waiter {
+
+        private static final Object SHED = new Object();
+        private static final Object CANCELLED = new Object();
+
+        private final MonoSink<Permit> sink;
+        private final Priority priority;
+        private final String flow;
+        private final AtomicReference<Object> outcome = new AtomicReference<>();
+        private volatile Disposable timer;
+
+        private Waiter(MonoSink<Permit> sink, Priority priority, String flow) {
+            this.sink = sink;
+            this.priority = priority;
+            this.flow = flow;
+            sink.onCancel(this::cancel);
+        }
+
+        private void startTimer() {
+            timer = Schedulers.parallel().schedule(() -> {
+                if (remove(this)) {
+                    shed("queue timeout");
+                }
+            }, settings.maxQueueWaitMs(), TimeUnit.MILLISECONDS);
+        }
+
+        private boolean grant() {
+            Permit permit = new Permit(AdaptiveConcurrencyLimiter.this, System.nanoTime(), inFlight.get());
+            if (!outcome.compareAndSet(null, permit)) {
+                return false;
+            }
+            disposeTimer();
+            sink.success(permit);
+            return true;
+        }
+
+        private void shed(String reason) {
+            if (outcome.compareAndSet(null, SHED)) {
+                disposeTimer();
+                shedCount.incrementAndGet();
+                sink.error(new LoadSheddingException(
+                        "Service " + name + " is overloaded, request shed (" + reason + ")"));
+            }
+        }
+
+        private void cancel() {
+            if (outcome.compareAndSet(null, CANCELLED)) {
+                disposeTimer();
+                remove(this);
+            } else if (outcome.get() instanceof Permit permit) {
+                // Cancelled around the grant, so nobody else will release the permit
+                permit.discard();
+            }
+        }
+
+        private void disposeTimer() {
+            Disposable t = timer;
+            if (t != null) {
+                t.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.catface996.gateway.infrastructure.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-backend {@link AdaptiveConcurrencyLimiter}s.
+ * <p>
+ * Exports per backend the current limit ({@code gateway.concurrency.limit}), in-flight and
+ * queued requests ({@code gateway.concurrency.inflight}, {@code gateway.concurrency.queued})
+ * and the number of shed requests ({@code gateway.concurrency.shed}).
+ * <p>
+ * Queued requests are admitted in weighted round-robin order per operator; operators get a
+ * weight of 1 unless configured otherwise in {@code gateway.concurrency-limit.operator-weights}
+ * ("operatorId=weight" entries).
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final AdaptiveConcurrencyLimiter.Settings settings;
+    private final Map<String, Integer> flowWeights;
+
+    public ConcurrencyLimiterRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${gateway.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${gateway.concurrency-limit.max-limit:500}") int maxLimit,
+            @Value("${gateway.concurrency-limit.max-queue-size:100}") int maxQueueSize,
+            @Value("${gateway.concurrency-limit.max-queue-per-operator:20}") int maxQueuePerOperator,
+            @Value("${gateway.concurrency-limit.max-queue-wait-ms:50}") long maxQueueWaitMs,
+            @Value("${gateway.concurrency-limit.rtt-tolerance:2.0}") double rttTolerance,
+            @Value("${gateway.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${gateway.concurrency-limit.long-window:600}") int longWindow,
+            @Value("${gateway.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${gateway.concurrency-limit.operator-weights:}") List<String> operatorWeights) {
+        this.meterRegistry = meterRegistry;
+        this.settings = new AdaptiveConcurrencyLimiter.Settings(initialLimit, Math.max(1, minLimit), maxLimit,
+                maxQueueSize, Math.max(1, maxQueuePerOperator), maxQueueWaitMs, rttTolerance, smoothing,
+                longWindow, backoffRatio);
+        this.flowWeights = parseOperatorWeights(operatorWeights);
+        log.info("Concurrency limiter settings: {}, operator weights: {}", settings, flowWeights);
+    }
+
+    /**
+     * Returns the limiter of a backend service, creating it on first use.
+     *
+     * @param backendId the backend service identifier
+     * @return the backend's concurrency limiter
+     */
+    public AdaptiveConcurrencyLimiter get(String backendId) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(backendId);
+        return limiter != null ? limiter : limiters.computeIfAbsent(backendId, this::create);
+    }
+
+    /**
+     * Removes the limiter of a backend service and its meters.
+     *
+     * @param backendId the backend service identifier
+     */
+    public void remove(String backendId) {
+        if (limiters.remove(backendId) != null) {
+            Search.in(meterRegistry)
+                    .name(name -> name.startsWith("gateway.concurrency."))
+                    .tag("backend", backendId)
+                    .meters()
+                    .forEach(meterRegistry::remove);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter create(String backendId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(backendId, settings,
+                flow -> flowWeights.getOrDefault(flow, 1));
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("backend", backendId)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("backend", backendId)
+                .description("Requests currently in flight to the backend")
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .tag("backend", backendId)
+                .description("Requests waiting for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.queued.operators", limiter, AdaptiveConcurrencyLimiter::getQueuedFlows)
+                .tag("backend", backendId)
+                .description("Operators (or anonymous clients) with requests waiting for a permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.concurrency.shed", limiter, AdaptiveConcurrencyLimiter::getShedCount)
+                .tag("backend", backendId)
+                .description("Requests shed because the backend was at its limit")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Parses "operatorId=weight" entries into weights keyed like {@code ClientIpUtils.getClientKey}.
+     */
+    private static Map<String, Integer> parseOperatorWeights(List<String> entries) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : entries) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                log.warn("Ignoring malformed operator weight: {}", entry);
+                continue;
+            }
+            try {
+                weights.put("op:" + entry.substring(0, separator).trim(),
+                        Integer.parseInt(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed operator weight: {}", entry);
+            }
+        }
+        return Map.copyOf(weights);
+    }
+}
@@ -0,0 +1,218 @@
+package com.catface996.gateway.infrastructure.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how late each Netty event loop runs the tasks given to it.
+ * <p>
+ * Every {@code gateway.event-loop.monitor.interval-ms} a probe task is submitted to each server
+ * event loop (the loops that also run the gateway's filters and backend calls); the delay until
+ * it runs is the loop's scheduling lag, recorded per loop in {@code gateway.event-loop.lag}. A probe
+ * that has not run by the next interval counts as lag of at least its age, so a loop stuck in a
+ * blocking call shows up while it is stuck, not after. When a probe has waited
+ * {@code gateway.event-loop.monitor.blocked-threshold-ms}, the loop's stack is logged once, showing
+ * what is blocking it.
+ * <p>
+ * The worst current lag over all loops ({@link #getLagNanos()}, gauge {@code gateway.event-loop.lag.max})
+ * drives the {@code EventLoopAdmissionFilter}.
+ * <p>
+ * Probing runs as a lifecycle bean in {@link #PHASE}: it stops after the web server's graceful
+ * shutdown but before {@code ReactorResourceFactory} disposes the loops, since a probe submitted
+ * every interval would keep the loops' shutdown quiet period from ever elapsing.
+ */
+@Slf4j
+@Component
+public class EventLoopLagMonitor implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase - stops after the web server (and its graceful shutdown), before the
+     * ReactorResourceFactory (phase 0) that owns the event loops.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long blockedThresholdNanos;
+    private final long intervalMs;
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private volatile Scheduler scheduler;
+    private volatile long lagNanos;
+
+    public EventLoopLagMonitor(
+            MeterRegistry meterRegistry,
+            ReactorResourceFactory reactorResourceFactory,
+            @Value("${gateway.event-loop.monitor.enabled:true}") boolean enabled,
+            @Value("${gateway.event-loop.monitor.interval-ms:100}") long intervalMs,
+            @Value("${gateway.event-loop.monitor.blocked-threshold-ms:1000}") long blockedThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.blockedThresholdNanos = TimeUnit.MILLISECONDS.toNanos(blockedThresholdMs);
+        this.intervalMs = intervalMs;
+        if (!enabled) {
+            log.info("Event loop lag monitor initialized, enabled: false");
+            return;
+        }
+
+        LoopResources loopResources = reactorResourceFactory.getLoopResources();
+        for (EventExecutor loop : loopResources.onServer(LoopResources.DEFAULT_NATIVE)) {
+            probes.add(new LoopProbe(loop, String.valueOf(probes.size())));
+        }
+        Gauge.builder("gateway.event-loop.lag.max", this, monitor -> monitor.lagNanos / 1e9)
+                .baseUnit("seconds")
+                .description("Current scheduling lag of the most delayed event loop")
+                .register(meterRegistry);
+        log.info("Event loop lag monitor initialized, enabled: true, loops: {}, interval: {}ms, "
+                + "blocked threshold: {}ms", probes.size(), intervalMs, blockedThresholdMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current scheduling lag of the most delayed event loop, in nanoseconds.
+     */
+    public long getLagNanos() {
+        return lagNanos;
+    }
+
+    private void probe() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (LoopProbe probe : probes) {
+            max = Math.max(max, probe.tick(now));
+        }
+        lagNanos = max;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        // A dedicated thread, so probing keeps working however busy the shared schedulers are
+        Scheduler probeScheduler = Schedulers.newSingle("gateway-event-loop-monitor", true);
+        probeScheduler.schedulePeriodically(this::probe, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        scheduler = probeScheduler;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+            lagNanos = 0;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Probe of one event loop. {@link #tick} runs on the monitor thread, {@link #run} on the loop.
+     */
+    private final class LoopProbe implements Runnable {
+
+        private final EventExecutor loop;
+        private final String name;
+        private final Timer lagTimer;
+        private final Counter blockedCounter;
+        private volatile long submittedNanos;
+        private volatile boolean pending;
+        private volatile long lastLagNanos;
+        private volatile Thread thread;
+        private boolean blockedReported;
+
+        private LoopProbe(EventExecutor loop, String name) {
+            this.loop = loop;
+            this.name = name;
+            this.lagTimer = Timer.builder("gateway.event-loop.lag")
+                    .tag("loop", name)
+                    .description("Delay between submitting a task to an event loop and the loop running it")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+            this.blockedCounter = Counter.builder("gateway.event-loop.blocked")
+                    .tag("loop", name)
+                    .description("Times an event loop did not run a probe within the blocked threshold")
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Submits a new probe unless the previous one is still waiting, and returns the loop's lag.
+         */
+        private long tick(long now) {
+            if (pending) {
+                long waitingNanos = now - submittedNanos;
+                if (waitingNanos >= blockedThresholdNanos && !blockedReported) {
+                    blockedReported = true;
+                    reportBlocked(waitingNanos);
+                }
+                return Math.max(waitingNanos, lastLagNanos);
+            }
+            blockedReported = false;
+            if (loop.isShuttingDown()) {
+                return 0;
+            }
+            submittedNanos = now;
+            pending = true;
+            try {
+                loop.execute(this);
+            } catch (RejectedExecutionException e) {
+                // The loop is shutting down
+                pending = false;
+            }
+            return lastLagNanos;
+        }
+
+        @Override
+        public void run() {
+            long lag = System.nanoTime() - submittedNanos;
+            thread = Thread.currentThread();
+            lastLagNanos = lag;
+            pending = false;
+            lagTimer.record(lag, TimeUnit.NANOSECONDS);
+        }
+
+        private void reportBlocked(long waitingNanos) {
+            blockedCounter.increment();
+            Thread loopThread = thread;
+            if (loopThread == null) {
+                log.warn("Event loop {} has not run a task for {}ms", name, TimeUnit.NANOSECONDS.toMillis(waitingNanos));
+                return;
+            }
+            StringBuilder stack = new StringBuilder();
+            for (StackTraceElement element : loopThread.getStackTrace()) {
+                stack.append("\n\tat ").append(element);
+            }
+            log.warn("Event loop {} ({}) has not run a task for {}ms, it is probably blocked in:{}",
+                    name, loopThread.getName(), TimeUnit.NANOSECONDS.toMillis(waitingNanos), stack);
+        }
+    }
+}
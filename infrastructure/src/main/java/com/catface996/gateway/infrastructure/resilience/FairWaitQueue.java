@@ -0,0 +1,170 @@
+package com.catface996.gateway.infrastructure.resilience;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Wait queue that serves its flows in weighted round-robin order instead of FIFO.
+ * <p>
+ * Each flow (an operator, or a client IP for anonymous requests) has its own bounded FIFO lane.
+ * The client IP is the connection's peer unless that is a trusted proxy, so a client cannot open
+ * itself a fresh lane per request by varying X-Forwarded-For.
+ * {@link #poll()} takes up to {@code weight} entries from the lane at the head of the ring, then
+ * moves on to the next lane, so a flow with many queued requests cannot starve the others.
+ * <p>
+ * Not thread-safe; the owning {@link AdaptiveConcurrencyLimiter} guards it with its monitor.
+ *
+ * @param <T> the queued element type
+ */
+final class FairWaitQueue<T> {
+
+    private final Map<String, Lane<T>> lanes = new HashMap<>();
+    private final ArrayDeque<Lane<T>> ring = new ArrayDeque<>();
+    private final int maxPerFlow;
+    private final ToIntFunction<String> weights;
+    private int size;
+
+    FairWaitQueue(int maxPerFlow, ToIntFunction<String> weights) {
+        this.maxPerFlow = maxPerFlow;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns whether the flow's lane has reached its bound.
+     */
+    boolean isFull(String flow) {
+        Lane<T> lane = lanes.get(flow);
+        return lane != null && lane.elements.size() >= maxPerFlow;
+    }
+
+    /**
+     * Appends an element to its flow's lane; callers check {@link #isFull(String)} first.
+     */
+    void offer(String flow, T element) {
+        Lane<T> lane = lanes.get(flow);
+        if (lane == null) {
+            // Lanes exist only while non-empty, so a new lane joins the back of the ring
+            lane = new Lane<>(flow, Math.max(1, weights.applyAsInt(flow)));
+            lane.credits = lane.weight;
+            lanes.put(flow, lane);
+            ring.offer(lane);
+        }
+        lane.elements.offer(element);
+        size++;
+    }
+
+    /**
+     * Takes the next element in weighted round-robin order.
+     *
+     * @return the element, or null if the queue is empty
+     */
+    T poll() {
+        Lane<T> lane = ring.peek();
+        if (lane == null) {
+            return null;
+        }
+        T element = lane.elements.poll();
+        size--;
+        if (lane.elements.isEmpty()) {
+            ring.poll();
+            lanes.remove(lane.flow);
+        } else if (--lane.credits <= 0) {
+            // Turn used up, go to the back of the ring with a fresh allowance
+            ring.poll();
+            lane.credits = lane.weight;
+            ring.offer(lane);
+        }
+        return element;
+    }
+
+    /**
+     * Removes the newest element of the longest lane, to make room for an element of a flow that
+     * has fewer entries queued.
+     *
+     * @param flow the flow that needs room
+     * @return the displaced element, or null if no other lane is longer than the flow's own
+     */
+    T displaceFor(String flow) {
+        Lane<T> own = lanes.get(flow);
+        int ownSize = own != null ? own.elements.size() : 0;
+        Lane<T> longest = null;
+        for (Lane<T> lane : ring) {
+            if (longest == null || lane.elements.size() > longest.elements.size()) {
+                longest = lane;
+            }
+        }
+        if (longest == null || longest.elements.size() <= ownSize + 1) {
+            return null;
+        }
+        return removeLast(longest);
+    }
+
+    /**
+     * Removes the newest element of the longest lane regardless of the caller's flow.
+     *
+     * @return the displaced element, or null if the queue is empty
+     */
+    T displaceNewest() {
+        Lane<T> longest = null;
+        for (Lane<T> lane : ring) {
+            if (longest == null || lane.elements.size() > longest.elements.size()) {
+                longest = lane;
+            }
+        }
+        return longest != null ? removeLast(longest) : null;
+    }
+
+    /**
+     * Removes a specific element, e.g. one that timed out or was cancelled.
+     *
+     * @return true if the element was queued
+     */
+    boolean remove(String flow, T element) {
+        Lane<T> lane = lanes.get(flow);
+        if (lane == null || !lane.elements.remove(element)) {
+            return false;
+        }
+        size--;
+        if (lane.elements.isEmpty()) {
+            ring.remove(lane);
+            lanes.remove(flow);
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of flows with queued elements.
+     */
+    int flows() {
+        return ring.size();
+    }
+
+    private T removeLast(Lane<T> lane) {
+        T element = lane.elements.pollLast();
+        size--;
+        if (lane.elements.isEmpty()) {
+            ring.remove(lane);
+            lanes.remove(lane.flow);
+        }
+        return element;
+    }
+
+    private static final class Lane<T> {
+
+        private final String flow;
+        private final int weight;
+        private final ArrayDeque<T> elements = new ArrayDeque<>();
+        private int credits;
+
+        private Lane(String flow, int weight) {
+            this.flow = flow;
+            this.weight = weight;
+        }
+    }
+}
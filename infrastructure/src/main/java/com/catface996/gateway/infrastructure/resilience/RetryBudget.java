@@ -0,0 +1,70 @@
+package com.catface996.gateway.infrastructure.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket retry budget for a single backend service.
+ * <p>
+ * Every original request deposits {@code ratio} of a token and every retry or hedge withdraws
+ * a whole token, so extra attempts can never exceed {@code ratio} of the base traffic (plus the
+ * bucket capacity). The balance is kept in thousandths of a token and updated with CAS only.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * Creates a retry budget.
+     *
+     * @param ratio         fraction of base requests that may be retried (e.g. 0.1 for 10%)
+     * @param maxTokens     maximum number of retries that can be saved up
+     * @param initialTokens retries available before any traffic has been seen
+     */
+    public RetryBudget(double ratio, int maxTokens, int initialTokens) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(Math.min(initialTokens, maxTokens) * SCALE);
+    }
+
+    /**
+     * Records an original (non-retry) request, earning a fraction of a retry token.
+     */
+    public void onRequest() {
+        long current;
+        long next;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+            next = Math.min(capacity, current + depositPerRequest);
+        } while (!balance.compareAndSet(current, next));
+    }
+
+    /**
+     * Withdraws one token for a retry or hedge.
+     *
+     * @return true if the extra attempt is within budget
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Returns the number of retry tokens currently available.
+     */
+    public double getAvailableTokens() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,99 @@
+package com.catface996.gateway.infrastructure.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-backend {@link RetryBudget}s shared by the retry and hedging filters.
+ * <p>
+ * Exports the available tokens per backend as {@code gateway.retry.budget.tokens} and counts
+ * extra attempts denied by the budget as {@code gateway.retry.budget.exhausted}.
+ */
+@Component
+public class RetryBudgetRegistry {
+
+    private final Map<String, BackendBudget> budgets = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final double ratio;
+    private final int maxTokens;
+    private final int initialTokens;
+
+    public RetryBudgetRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.retry.budget.ratio:0.1}") double ratio,
+            @Value("${gateway.retry.budget.max-tokens:100}") int maxTokens,
+            @Value("${gateway.retry.budget.initial-tokens:10}") int initialTokens) {
+        this.meterRegistry = meterRegistry;
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.initialTokens = initialTokens;
+    }
+
+    /**
+     * Returns the retry budget of a backend service, creating it on first use.
+     *
+     * @param backendId the backend service identifier
+     * @return the backend's retry budget
+     */
+    public RetryBudget get(String backendId) {
+        return entry(backendId).budget();
+    }
+
+    /**
+     * Withdraws a token for an extra attempt, counting the denial if the budget is exhausted.
+     *
+     * @param backendId the backend service identifier
+     * @return true if the extra attempt may be sent
+     */
+    public boolean tryAcquire(String backendId) {
+        BackendBudget entry = entry(backendId);
+        if (entry.budget().tryAcquire()) {
+            return true;
+        }
+        entry.exhausted().increment();
+        return false;
+    }
+
+    /**
+     * Removes the retry budget of a backend service and its meters.
+     *
+     * @param backendId the backend service identifier
+     */
+    public void remove(String backendId) {
+        if (budgets.remove(backendId) != null) {
+            Search.in(meterRegistry)
+                    .name(name -> name.startsWith("gateway.retry.budget."))
+                    .tag("backend", backendId)
+                    .meters()
+                    .forEach(meterRegistry::remove);
+        }
+    }
+
+    private BackendBudget entry(String backendId) {
+        BackendBudget entry = budgets.get(backendId);
+        return entry != null ? entry : budgets.computeIfAbsent(backendId, this::create);
+    }
+
+    private BackendBudget create(String backendId) {
+        RetryBudget budget = new RetryBudget(ratio, maxTokens, initialTokens);
+        Gauge.builder("gateway.retry.budget.tokens", budget, RetryBudget::getAvailableTokens)
+                .tag("backend", backendId)
+                .description("Retry tokens available to the backend service")
+                .register(meterRegistry);
+        Counter exhausted = Counter.builder("gateway.retry.budget.exhausted")
+                .tag("backend", backendId)
+                .description("Extra attempts denied because the backend's retry budget was exhausted")
+                .register(meterRegistry);
+        return new BackendBudget(budget, exhausted);
+    }
+
+    private record BackendBudget(RetryBudget budget, Counter exhausted) {
+    }
+}
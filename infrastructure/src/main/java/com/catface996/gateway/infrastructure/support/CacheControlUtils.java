@@ -0,0 +1,61 @@
+package com.catface996.gateway.infrastructure.support;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Helpers for reading Cache-Control directives.
+ */
+public final class CacheControlUtils {
+
+    private CacheControlUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Returns whether a Cache-Control header value contains a directive.
+     *
+     * @param cacheControl the header value, may be null
+     * @param directive    the directive name, e.g. "no-store"
+     * @return true if the directive is present
+     */
+    public static boolean hasDirective(String cacheControl, String directive) {
+        return directiveValue(cacheControl, directive) != null;
+    }
+
+    /**
+     * Returns the delta-seconds value of a directive such as "max-age".
+     *
+     * @param cacheControl the header value, may be null
+     * @param directive    the directive name
+     * @return the number of seconds, or -1 if the directive is absent or malformed
+     */
+    public static long directiveSeconds(String cacheControl, String directive) {
+        String value = directiveValue(cacheControl, directive);
+        if (!StringUtils.hasText(value)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.replace("\"", "").trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the value of a directive, "" for a directive without value, or null if absent.
+     */
+    private static String directiveValue(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return null;
+        }
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            int equals = token.indexOf('=');
+            String name = equals < 0 ? token : token.substring(0, equals).trim();
+            if (name.equalsIgnoreCase(directive)) {
+                return equals < 0 ? "" : token.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+}
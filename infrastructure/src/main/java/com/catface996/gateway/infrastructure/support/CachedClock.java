@@ -0,0 +1,51 @@
+package com.catface996.gateway.infrastructure.support;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Clock for second-resolution timestamps that formats each second only once.
+ * <p>
+ * Error responses carry a local date-time down to the second. Building a {@link LocalDateTime} and
+ * formatting it per response costs more than the rest of a pre-encoded error body; here the
+ * formatted bytes of the current second are cached and only rebuilt when the second changes, so
+ * all responses within a second share them. A race on the change of second at worst formats the
+ * same second twice.
+ */
+public final class CachedClock {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static volatile Tick tick = format(System.currentTimeMillis() / 1000);
+
+    private CachedClock() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Returns the current local date-time as {@code yyyy-MM-dd'T'HH:mm:ss} in ASCII - the format
+     * {@code ErrorResponse} serializes its timestamp with.
+     *
+     * @return the shared bytes of the current second; callers must not modify them
+     */
+    public static byte[] localDateTimeBytes() {
+        long second = System.currentTimeMillis() / 1000;
+        Tick current = tick;
+        if (current.epochSecond() != second) {
+            current = format(second);
+            tick = current;
+        }
+        return current.bytes();
+    }
+
+    private static Tick format(long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+        return new Tick(epochSecond, FORMAT.format(time).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private record Tick(long epochSecond, byte[] bytes) {
+    }
+}
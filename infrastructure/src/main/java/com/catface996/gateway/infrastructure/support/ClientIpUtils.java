@@ -0,0 +1,49 @@
+package com.catface996.gateway.infrastructure.support;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Helpers for identifying the client that sent a request.
+ */
+public final class ClientIpUtils {
+
+    private ClientIpUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Resolves the client IP: the peer address of the connection. Forwarding headers
+     * (X-Forwarded-For, X-Real-IP) are only honored when that peer is a trusted proxy
+     * ({@code gateway.server.trusted-proxies}), in which case the server has already resolved the
+     * forwarded client into the remote address; a client connecting directly cannot choose its IP.
+     *
+     * @param request the incoming request
+     * @return the client IP, or "unknown" if it cannot be determined
+     */
+    public static String getClientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            return remoteAddress.getAddress().getHostAddress();
+        }
+        return "unknown";
+    }
+
+    /**
+     * Identifies who sent a request: the authenticated operator, or the client IP for public
+     * routes and when authentication is disabled.
+     *
+     * @param exchange the current exchange
+     * @return "op:&lt;operatorId&gt;" or "ip:&lt;clientIp&gt;"
+     */
+    public static String getClientKey(ServerWebExchange exchange) {
+        Long operatorId = exchange.getAttribute(RouteConstants.OPERATOR_ID_ATTR);
+        if (operatorId != null) {
+            return "op:" + operatorId;
+        }
+        return "ip:" + getClientIp(exchange.getRequest());
+    }
+}
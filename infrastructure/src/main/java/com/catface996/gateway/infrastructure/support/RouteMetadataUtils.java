@@ -0,0 +1,98 @@
+package com.catface996.gateway.infrastructure.support;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Helpers for reading the matched route and its metadata from an exchange.
+ * <p>
+ * Route metadata comes from YAML, so values may arrive as {@code Boolean}, {@code Integer}
+ * or {@code String}; the typed getters accept any of these representations.
+ */
+public final class RouteMetadataUtils {
+
+    /**
+     * Route ID reported when no route has been matched yet.
+     */
+    public static final String UNKNOWN_ROUTE = "unknown";
+
+    private RouteMetadataUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Returns the route matched for the exchange, or null if routing has not happened.
+     */
+    public static Route getRoute(ServerWebExchange exchange) {
+        return exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+    }
+
+    /**
+     * Returns the ID of the matched route, or {@link #UNKNOWN_ROUTE}.
+     */
+    public static String getRouteId(ServerWebExchange exchange) {
+        Route route = getRoute(exchange);
+        return route != null ? route.getId() : UNKNOWN_ROUTE;
+    }
+
+    /**
+     * Returns the backend service the exchange is routed to.
+     * <p>
+     * Uses the route's "service" metadata, falling back to the route ID for routes
+     * (such as the public auth routes) that do not declare one.
+     */
+    public static String getBackendId(ServerWebExchange exchange) {
+        Route route = getRoute(exchange);
+        if (route == null) {
+            return UNKNOWN_ROUTE;
+        }
+        return getString(route, RouteConstants.METADATA_KEY_SERVICE, route.getId());
+    }
+
+    /**
+     * Checks if the matched route is marked as public (metadata.public=true).
+     */
+    public static boolean isPublicRoute(ServerWebExchange exchange) {
+        Route route = getRoute(exchange);
+        return route != null && getBoolean(route, RouteConstants.METADATA_KEY_PUBLIC, false);
+    }
+
+    public static String getString(Route route, String key, String defaultValue) {
+        Object value = route.getMetadata().get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    public static boolean getBoolean(Route route, String key, boolean defaultValue) {
+        Object value = route.getMetadata().get(key);
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        return value != null ? Boolean.parseBoolean(value.toString()) : defaultValue;
+    }
+
+    public static int getInt(Route route, String key, int defaultValue) {
+        Object value = route.getMetadata().get(key);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return value != null ? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
+
+    public static long getLong(Route route, String key, long defaultValue) {
+        Object value = route.getMetadata().get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value != null ? Long.parseLong(value.toString().trim()) : defaultValue;
+    }
+
+    public static double getDouble(Route route, String key, double defaultValue) {
+        Object value = route.getMetadata().get(key);
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        return value != null ? Double.parseDouble(value.toString().trim()) : defaultValue;
+    }
+}
@@ -0,0 +1,70 @@
+package com.catface996.gateway.infrastructure.support;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.filter.StreamingResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * Helpers for recognizing streamed responses, which must reach the client chunk by chunk and
+ * never be buffered, compressed as a whole or replayed by the gateway.
+ */
+public final class StreamingResponseUtils {
+
+    /**
+     * Content types that are always streamed, whatever the route.
+     */
+    public static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(
+            MediaType.TEXT_EVENT_STREAM,
+            MediaType.APPLICATION_NDJSON,
+            new MediaType("application", "stream+json"));
+
+    private StreamingResponseUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Returns whether a response about to be written is a stream.
+     * <p>
+     * A response is a stream if its content type is one of {@link #STREAMING_MEDIA_TYPES}, or if
+     * it has no Content-Length (it is chunked) and the route sets metadata "streaming=true".
+     *
+     * @param exchange the exchange
+     * @param headers  the response headers
+     * @return true if the response is a stream
+     */
+    public static boolean isStreaming(ServerWebExchange exchange, HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        if (contentType != null) {
+            for (MediaType mediaType : STREAMING_MEDIA_TYPES) {
+                if (mediaType.isCompatibleWith(contentType)) {
+                    return true;
+                }
+            }
+        }
+        if (headers.getContentLength() >= 0) {
+            return false;
+        }
+        Route route = RouteMetadataUtils.getRoute(exchange);
+        return route != null && RouteMetadataUtils.getBoolean(route, RouteConstants.METADATA_KEY_STREAMING, false);
+    }
+
+    /**
+     * Returns whether the response of a completed exchange was streamed.
+     */
+    public static boolean wasStreamed(ServerWebExchange exchange) {
+        return Boolean.TRUE.equals(exchange.getAttribute(StreamingResponseFilter.STREAMING_ATTR));
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which the first body chunk was written, or -1 if none was.
+     */
+    public static long getFirstByteNanos(ServerWebExchange exchange) {
+        Long firstByteNanos = exchange.getAttribute(StreamingResponseFilter.FIRST_BYTE_NANOS_ATTR);
+        return firstByteNanos != null ? firstByteNanos : -1;
+    }
+}
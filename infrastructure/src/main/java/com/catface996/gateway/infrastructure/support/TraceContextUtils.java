@@ -0,0 +1,36 @@
+package com.catface996.gateway.infrastructure.support;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.handler.TracingObservationHandler.TracingContext;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Helpers for reading the trace context of a request.
+ * <p>
+ * Every request is observed by the web server, which starts its span (continuing the caller's W3C
+ * {@code traceparent}, if any) before the gateway filters run; the span hangs off the observation
+ * context kept in the exchange attributes.
+ */
+public final class TraceContextUtils {
+
+    private TraceContextUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Returns the trace ID of the request.
+     *
+     * @param exchange the exchange
+     * @return the 32 hex digit trace ID, or null if the request is not traced
+     */
+    public static String getTraceId(ServerWebExchange exchange) {
+        return ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+                .map(context -> context.<TracingContext>get(TracingContext.class))
+                .map(TracingContext::getSpan)
+                .map(Span::context)
+                .map(TraceContext::traceId)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.catface996.gateway.infrastructure.support;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.NetUtil;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The proxies whose forwarding headers are trusted, as a list of CIDR ranges.
+ * <p>
+ * A request's client address is its peer address unless that peer is a trusted proxy. Only then are
+ * {@code X-Forwarded-For} (walked from the right, skipping further trusted proxies) and
+ * {@code X-Real-IP} honored. Clients connecting directly cannot pick their own address and so
+ * cannot get a fresh rate-limit bucket, fairness lane or cache key per request.
+ */
+public final class TrustedProxies {
+
+    private static final TrustedProxies NONE = new TrustedProxies(List.of());
+
+    private final List<Range> ranges;
+
+    private TrustedProxies(List<Range> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Parses CIDR ranges ("10.0.0.0/8", "::1/128"); a plain address is a single-address range.
+     *
+     * @param cidrs the ranges, blank entries ignored
+     * @return the trusted proxies
+     * @throws IllegalArgumentException if an entry is not an IP address or CIDR range
+     */
+    public static TrustedProxies of(List<String> cidrs) {
+        List<Range> ranges = new ArrayList<>();
+        for (String cidr : cidrs) {
+            if (cidr != null && !cidr.isBlank()) {
+                ranges.add(Range.parse(cidr.trim()));
+            }
+        }
+        return ranges.isEmpty() ? NONE : new TrustedProxies(List.copyOf(ranges));
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * Returns whether the address belongs to a trusted proxy.
+     */
+    public boolean contains(InetAddress address) {
+        if (address == null) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        for (Range range : ranges) {
+            if (range.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the client address of a request that a trusted proxy forwarded.
+     *
+     * @param headers the request headers
+     * @return the client address from the forwarding headers, or null if they name none
+     */
+    public InetAddress resolveForwardedClient(HttpHeaders headers) {
+        String forwardedFor = headers.get("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isEmpty()) {
+            InetAddress client = null;
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                InetAddress hop = NetUtil.createInetAddressFromIpAddressString(hops[i].trim());
+                if (hop == null) {
+                    // Not an address: cannot tell where the chain was tampered with, stop here
+                    break;
+                }
+                client = hop;
+                if (!contains(hop)) {
+                    break;
+                }
+            }
+            return client;
+        }
+        String realIp = headers.get("X-Real-IP");
+        return realIp != null ? NetUtil.createInetAddressFromIpAddressString(realIp.trim()) : null;
+    }
+
+    /**
+     * One CIDR range.
+     */
+    private record Range(byte[] network, int prefixLength) {
+
+        static Range parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            String address = slash < 0 ? cidr : cidr.substring(0, slash);
+            byte[] network = NetUtil.createByteArrayFromIpAddressString(address);
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + cidr);
+            }
+            int prefixLength = network.length * 8;
+            if (slash >= 0) {
+                try {
+                    prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid trusted proxy range: " + cidr, e);
+                }
+                if (prefixLength < 0 || prefixLength > network.length * 8) {
+                    throw new IllegalArgumentException("Invalid trusted proxy range: " + cidr);
+                }
+            }
+            return new Range(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.catface996.gateway.infrastructure.support;
+
+import io.netty.channel.ConnectTimeoutException;
+
+import java.net.ConnectException;
+
+/**
+ * Helpers for classifying errors raised while proxying to a backend service.
+ */
+public final class UpstreamFailureUtils {
+
+    private UpstreamFailureUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Checks if the error (or any of its causes) is a failure to connect to the backend.
+     * <p>
+     * Connect failures happen before any bytes are sent, so the request never reached the backend.
+     *
+     * @param ex the error to inspect
+     * @return true if the backend could not be connected to
+     */
+    public static boolean isConnectFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,360 @@
+package com.catface996.gateway.infrastructure.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.dns.DnsCache;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking, caching DNS resolver for backend hostnames.
+ * <p>
+ * Backend clients resolve hostnames through this resolver instead of the JDK's blocking
+ * {@link InetAddress} lookups. Names are queried asynchronously on a dedicated thread (hosts file
+ * first, then the system's name servers and search domains) and cached:
+ * <ul>
+ *     <li>Answers are cached for their DNS TTL, bounded by {@code gateway.upstream.dns.min-ttl-ms}
+ *     and {@code gateway.upstream.dns.max-ttl-ms}; hosts file entries, which have no TTL, for the maximum</li>
+ *     <li>Once {@code gateway.upstream.dns.refresh-ahead} of an entry's TTL has passed, the next lookup
+ *     refreshes it in the background, so requests are not held up by expiring entries</li>
+ *     <li>Failed lookups are cached for {@code gateway.upstream.dns.negative-ttl-ms}; a failed refresh
+ *     keeps serving the previous addresses until they expire</li>
+ *     <li>Concurrent lookups of the same name share one query</li>
+ * </ul>
+ * When a name has several addresses, each new connection is opened to the next one in turn, which
+ * spreads a backend's pooled connections across all of its instances.
+ * <p>
+ * Exports per host the query latency ({@code gateway.upstream.dns.resolve}) and cache hits, misses
+ * and negative hits ({@code gateway.upstream.dns.cache}).
+ */
+@Slf4j
+@Component
+public class BackendDnsResolver extends AddressResolverGroup<InetSocketAddress> implements DisposableBean {
+
+    private final Map<String, DnsEntry> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<DnsEntry>> lookups = new ConcurrentHashMap<>();
+    private final Map<String, Long> answerTtls = new ConcurrentHashMap<>();
+    private final Map<String, HostMeters> hostMeters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long minTtlNanos;
+    private final long maxTtlNanos;
+    private final long negativeTtlNanos;
+    private final double refreshAhead;
+    private final EventLoopGroup eventLoopGroup;
+    private final DnsNameResolver dnsNameResolver;
+
+    public BackendDnsResolver(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.upstream.dns.enabled:true}") boolean enabled,
+            @Value("${gateway.upstream.dns.min-ttl-ms:1000}") long minTtlMs,
+            @Value("${gateway.upstream.dns.max-ttl-ms:300000}") long maxTtlMs,
+            @Value("${gateway.upstream.dns.negative-ttl-ms:5000}") long negativeTtlMs,
+            @Value("${gateway.upstream.dns.refresh-ahead:0.8}") double refreshAhead,
+            @Value("${gateway.upstream.dns.query-timeout-ms:2000}") long queryTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minTtlNanos = TimeUnit.MILLISECONDS.toNanos(minTtlMs);
+        this.maxTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(minTtlMs, maxTtlMs));
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+        this.refreshAhead = Math.min(1.0, Math.max(0.0, refreshAhead));
+        if (enabled) {
+            this.eventLoopGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("gateway-dns", true));
+            this.dnsNameResolver = new DnsNameResolverBuilder(eventLoopGroup.next())
+                    .datagramChannelType(NioDatagramChannel.class)
+                    .resolveCache(new AnswerTtlRecorder())
+                    .queryTimeoutMillis(queryTimeoutMs)
+                    .build();
+        } else {
+            this.eventLoopGroup = null;
+            this.dnsNameResolver = null;
+        }
+        log.info("Backend DNS resolver initialized, enabled: {}, TTL: {}-{}ms, negative TTL: {}ms, refresh ahead: {}",
+                enabled, minTtlMs, maxTtlMs, negativeTtlMs, this.refreshAhead);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+        return new CachingAddressResolver(executor);
+    }
+
+    @Override
+    public void destroy() {
+        close();
+        if (dnsNameResolver != null) {
+            dnsNameResolver.close();
+            eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Returns the cached entry for a host, querying DNS if there is none or it has expired.
+     * The returned future always completes normally; a failed lookup yields a negative entry.
+     */
+    private CompletableFuture<DnsEntry> resolveHost(String hostname) {
+        String host = hostname.toLowerCase(Locale.ROOT);
+        DnsEntry entry = cache.get(host);
+        long now = System.nanoTime();
+        if (entry == null || now - entry.expiresAtNanos() >= 0) {
+            meters(host).miss().increment();
+            return lookup(host);
+        }
+        if (entry.failure() != null) {
+            meters(host).negativeHit().increment();
+        } else {
+            meters(host).hit().increment();
+            if (now - entry.refreshAtNanos() >= 0) {
+                lookup(host);
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    private CompletableFuture<DnsEntry> lookup(String host) {
+        CompletableFuture<DnsEntry> pending = lookups.get(host);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<DnsEntry> lookup = new CompletableFuture<>();
+        pending = lookups.putIfAbsent(host, lookup);
+        if (pending != null) {
+            return pending;
+        }
+
+        long start = System.nanoTime();
+        dnsNameResolver.resolveAll(host).addListener((Future<List<InetAddress>> result) -> {
+            long now = System.nanoTime();
+            Long answerTtl = takeAnswerTtl(host);
+            HostMeters meters = meters(host);
+            (result.isSuccess() ? meters.resolveSuccess() : meters.resolveFailure())
+                    .record(now - start, TimeUnit.NANOSECONDS);
+
+            DnsEntry entry;
+            if (result.isSuccess() && !result.getNow().isEmpty()) {
+                long ttlNanos = answerTtl == null
+                        ? maxTtlNanos
+                        : Math.min(maxTtlNanos, Math.max(minTtlNanos, TimeUnit.SECONDS.toNanos(answerTtl)));
+                DnsEntry previous = cache.get(host);
+                entry = new DnsEntry(List.copyOf(result.getNow()), null, now + ttlNanos,
+                        now + (long) (ttlNanos * refreshAhead),
+                        previous != null ? previous.cursor() : new AtomicInteger());
+                log.debug("Resolved {} to {} (TTL {}ms)", host, entry.addresses(),
+                        TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+            } else {
+                DnsEntry previous = cache.get(host);
+                Throwable cause = result.isSuccess() ? null : result.cause();
+                if (previous != null && previous.failure() == null && now - previous.expiresAtNanos() < 0) {
+                    log.warn("Failed to refresh addresses of {}, keeping {} until they expire: {}",
+                            host, previous.addresses(), String.valueOf(cause));
+                    entry = previous;
+                } else {
+                    log.warn("Failed to resolve {}: {}", host, String.valueOf(cause));
+                    entry = new DnsEntry(List.of(), cause != null ? cause : new IllegalStateException(
+                            "No addresses found for " + host), now + negativeTtlNanos, now + negativeTtlNanos,
+                            new AtomicInteger());
+                }
+            }
+            cache.put(host, entry);
+            lookups.remove(host, lookup);
+            lookup.complete(entry);
+        });
+        return lookup;
+    }
+
+    /**
+     * Removes and returns the lowest TTL (in seconds) of the answers received for a host, including
+     * answers for the host qualified with a search domain.
+     */
+    private Long takeAnswerTtl(String host) {
+        String qualifiedPrefix = host + ".";
+        Long ttl = null;
+        for (Iterator<Map.Entry<String, Long>> it = answerTtls.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> answer = it.next();
+            if (answer.getKey().equals(host) || answer.getKey().startsWith(qualifiedPrefix)) {
+                ttl = ttl == null ? answer.getValue() : Math.min(ttl, answer.getValue());
+                it.remove();
+            }
+        }
+        return ttl;
+    }
+
+    private HostMeters meters(String host) {
+        HostMeters meters = hostMeters.get(host);
+        if (meters == null) {
+            meters = hostMeters.computeIfAbsent(host, h -> new HostMeters(
+                    resolveTimer(h, "success"), resolveTimer(h, "failure"),
+                    cacheCounter(h, "hit"), cacheCounter(h, "negative-hit"), cacheCounter(h, "miss")));
+        }
+        return meters;
+    }
+
+    private Timer resolveTimer(String host, String outcome) {
+        return Timer.builder("gateway.upstream.dns.resolve")
+                .tag("host", host)
+                .tag("outcome", outcome)
+                .description("Time to resolve a backend hostname")
+                .register(meterRegistry);
+    }
+
+    private Counter cacheCounter(String host, String result) {
+        return Counter.builder("gateway.upstream.dns.cache")
+                .tag("host", host)
+                .tag("result", result)
+                .description("Backend hostname lookups by cache result")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The meters of one host, registered on its first lookup.
+     */
+    private record HostMeters(Timer resolveSuccess, Timer resolveFailure, Counter hit, Counter negativeHit,
+                              Counter miss) {
+    }
+
+    /**
+     * Cached addresses of a host, or the failure to resolve it.
+     */
+    private record DnsEntry(List<InetAddress> addresses, Throwable failure, long expiresAtNanos,
+                            long refreshAtNanos, AtomicInteger cursor) {
+
+        /**
+         * Returns the addresses starting with the next one in round-robin order.
+         */
+        private List<InetAddress> rotate() {
+            int size = addresses.size();
+            if (size == 1) {
+                return addresses;
+            }
+            int first = Math.floorMod(cursor.getAndIncrement(), size);
+            List<InetAddress> rotated = new ArrayList<>(size);
+            rotated.addAll(addresses.subList(first, size));
+            rotated.addAll(addresses.subList(0, first));
+            return rotated;
+        }
+    }
+
+    /**
+     * Resolver handed to each event loop; serves lookups from the shared cache.
+     */
+    private final class CachingAddressResolver extends AbstractAddressResolver<InetSocketAddress> {
+
+        private CachingAddressResolver(EventExecutor executor) {
+            super(executor, InetSocketAddress.class);
+        }
+
+        @Override
+        protected boolean doIsResolved(InetSocketAddress address) {
+            return !address.isUnresolved();
+        }
+
+        @Override
+        protected void doResolve(InetSocketAddress unresolved, Promise<InetSocketAddress> promise) {
+            InetAddress literal = NetUtil.createInetAddressFromIpAddressString(unresolved.getHostString());
+            if (literal != null) {
+                promise.trySuccess(new InetSocketAddress(literal, unresolved.getPort()));
+                return;
+            }
+            resolveHost(unresolved.getHostString()).thenAccept(entry -> {
+                if (entry.failure() != null) {
+                    promise.tryFailure(entry.failure());
+                } else {
+                    promise.trySuccess(new InetSocketAddress(entry.rotate().get(0), unresolved.getPort()));
+                }
+            });
+        }
+
+        @Override
+        protected void doResolveAll(InetSocketAddress unresolved, Promise<List<InetSocketAddress>> promise) {
+            InetAddress literal = NetUtil.createInetAddressFromIpAddressString(unresolved.getHostString());
+            if (literal != null) {
+                promise.trySuccess(List.of(new InetSocketAddress(literal, unresolved.getPort())));
+                return;
+            }
+            resolveHost(unresolved.getHostString()).thenAccept(entry -> {
+                if (entry.failure() != null) {
+                    promise.tryFailure(entry.failure());
+                    return;
+                }
+                List<InetSocketAddress> addresses = new ArrayList<>(entry.addresses().size());
+                for (InetAddress address : entry.rotate()) {
+                    addresses.add(new InetSocketAddress(address, unresolved.getPort()));
+                }
+                promise.trySuccess(addresses);
+            });
+        }
+    }
+
+    /**
+     * Netty resolver cache that caches nothing (this class does the caching) but records the TTL of
+     * each answer, which Netty does not otherwise expose.
+     */
+    private final class AnswerTtlRecorder implements DnsCache {
+
+        @Override
+        public void clear() {
+        }
+
+        @Override
+        public boolean clear(String hostname) {
+            return false;
+        }
+
+        @Override
+        public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address, long originalTtl,
+                                   EventLoop loop) {
+            answerTtls.merge(normalize(hostname), originalTtl, Math::min);
+            return null;
+        }
+
+        @Override
+        public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+            return null;
+        }
+
+        private String normalize(String hostname) {
+            String lower = hostname.toLowerCase(Locale.ROOT);
+            return lower.endsWith(".") ? lower.substring(0, lower.length() - 1) : lower;
+        }
+    }
+}
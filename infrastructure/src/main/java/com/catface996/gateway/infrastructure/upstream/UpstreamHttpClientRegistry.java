@@ -0,0 +1,316 @@
+package com.catface996.gateway.infrastructure.upstream;
+
+import com.catface996.gateway.infrastructure.observability.RequestTimeline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Registry of the HTTP clients used to proxy requests to each backend.
+ * <p>
+ * Every backend (route metadata "service", or the route ID) gets its own client over its own named
+ * connection pool, so one backend can neither exhaust nor evict another's connections. Pools hand
+ * out the most recently used idle connection first (LIFO), which keeps the hot set of connections
+ * small and lets idle ones expire; sizing and idle/life limits come from {@code gateway.upstream.pool.*},
+ * with {@code gateway.upstream.pool.backend-max-connections} ("backend=connections" entries)
+ * overriding the pool size per backend.
+ * <p>
+ * Backends are reached over HTTP/1.1 unless {@code gateway.upstream.protocols} ("backend=protocol"
+ * entries, see {@link UpstreamProtocol}) selects HTTP/2. An HTTP/2 backend multiplexes up to
+ * {@code gateway.upstream.max-concurrent-streams} requests over each of at most
+ * {@code gateway.upstream.h2-max-connections} connections; the stream limit can be overridden per
+ * backend in {@code gateway.upstream.backend-max-concurrent-streams} ("backend=streams" entries).
+ * Clients are built by Spring Cloud Gateway's {@link HttpClientFactory}, so they share its timeout,
+ * TLS, proxy and customizer settings; they allocate buffers from the gateway's pooled allocator and
+ * resolve backend hostnames through the {@link BackendDnsResolver}. They mark when a request got its
+ * connection and when its response headers arrived on the request's {@link RequestTimeline}.
+ * <p>
+ * Exports per backend the time to acquire a connection ({@code gateway.upstream.pool.acquire}),
+ * requests waiting for one ({@code gateway.upstream.pool.pending}) and active, idle and total
+ * connections ({@code gateway.upstream.pool.connections}).
+ */
+@Slf4j
+@Component
+public class UpstreamHttpClientRegistry implements DisposableBean {
+
+    private final Map<String, BackendClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> poolMeters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final BackendDnsResolver dnsResolver;
+    private final ByteBufAllocator allocator;
+    private final HttpClientProperties httpClientProperties;
+    private final ServerProperties serverProperties;
+    private final HttpClientSslConfigurer sslConfigurer;
+    private final List<HttpClientCustomizer> customizers;
+    private final PoolSettings poolSettings;
+    private final Map<String, Integer> backendMaxConnections;
+    private final Map<String, UpstreamProtocol> protocols;
+    private final Map<String, Integer> backendMaxConcurrentStreams;
+    private final int maxConcurrentStreams;
+    private final int h2MaxConnections;
+
+    public UpstreamHttpClientRegistry(
+            MeterRegistry meterRegistry,
+            BackendDnsResolver dnsResolver,
+            ByteBufAllocator gatewayByteBufAllocator,
+            HttpClientProperties httpClientProperties,
+            ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer,
+            ObjectProvider<HttpClientCustomizer> customizers,
+            @Value("${gateway.upstream.pool.max-connections:200}") int maxConnections,
+            @Value("${gateway.upstream.pool.backend-max-connections:}") List<String> backendMaxConnections,
+            @Value("${gateway.upstream.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${gateway.upstream.pool.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${gateway.upstream.pool.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${gateway.upstream.pool.max-life-ms:300000}") long maxLifeMs,
+            @Value("${gateway.upstream.pool.evict-interval-ms:10000}") long evictIntervalMs,
+            @Value("${gateway.upstream.pool.lifo:true}") boolean lifo,
+            @Value("${gateway.upstream.protocols:}") List<String> protocols,
+            @Value("${gateway.upstream.max-concurrent-streams:100}") int maxConcurrentStreams,
+            @Value("${gateway.upstream.backend-max-concurrent-streams:}") List<String> backendMaxConcurrentStreams,
+            @Value("${gateway.upstream.h2-max-connections:4}") int h2MaxConnections) {
+        this.meterRegistry = meterRegistry;
+        this.dnsResolver = dnsResolver;
+        this.allocator = gatewayByteBufAllocator;
+        this.httpClientProperties = httpClientProperties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers.orderedStream().toList();
+        this.poolSettings = new PoolSettings(Math.max(1, maxConnections), pendingAcquireMaxCount,
+                Duration.ofMillis(pendingAcquireTimeoutMs), Duration.ofMillis(maxIdleMs), Duration.ofMillis(maxLifeMs),
+                Duration.ofMillis(evictIntervalMs), lifo);
+        this.backendMaxConnections = parseEntries(backendMaxConnections, Integer::parseInt);
+        this.protocols = parseEntries(protocols, UpstreamProtocol::of);
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.backendMaxConcurrentStreams = parseEntries(backendMaxConcurrentStreams, Integer::parseInt);
+        this.h2MaxConnections = Math.max(1, h2MaxConnections);
+        log.info("Upstream pool settings: {} (overrides: {}), protocols: {}, max concurrent streams: {} "
+                        + "(overrides: {}), h2 max connections: {}", poolSettings, this.backendMaxConnections,
+                this.protocols, maxConcurrentStreams, this.backendMaxConcurrentStreams, this.h2MaxConnections);
+    }
+
+    /**
+     * Returns the client for a backend, creating it and its connection pool on first use.
+     *
+     * @param backendId the backend service ID
+     * @return the backend's client
+     */
+    public HttpClient get(String backendId) {
+        BackendClient client = clients.get(backendId);
+        if (client == null) {
+            client = clients.computeIfAbsent(backendId, this::create);
+        }
+        return client.httpClient();
+    }
+
+    /**
+     * Returns the protocol used to reach a backend.
+     */
+    public UpstreamProtocol getProtocol(String backendId) {
+        return protocols.getOrDefault(backendId, UpstreamProtocol.HTTP11);
+    }
+
+    /**
+     * Removes a backend's client, closing its connection pool and removing its meters.
+     *
+     * @param backendId the backend service ID
+     */
+    public void remove(String backendId) {
+        BackendClient client = clients.remove(backendId);
+        if (client != null) {
+            // Disposing the pool deregisters its gauges
+            client.connectionProvider().dispose();
+            meterRegistry.remove(client.acquireTimer());
+            log.info("Removed client for backend {}", backendId);
+        }
+    }
+
+    private BackendClient create(String backendId) {
+        UpstreamProtocol protocol = getProtocol(backendId);
+        int maxConnections = backendMaxConnections.getOrDefault(backendId, poolSettings.maxConnections());
+        int streams = backendMaxConcurrentStreams.getOrDefault(backendId, maxConcurrentStreams);
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("gateway-" + backendId)
+                .pendingAcquireMaxCount(poolSettings.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(poolSettings.pendingAcquireTimeout())
+                .maxIdleTime(poolSettings.maxIdleTime())
+                .maxLifeTime(poolSettings.maxLifeTime())
+                .evictInBackground(poolSettings.evictInterval())
+                .metrics(true, () -> new PoolMeterRegistrar(backendId));
+        if (poolSettings.lifo()) {
+            builder.lifo();
+        }
+        if (protocol.isHttp2()) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConcurrentStreams(streams)
+                    .minConnections(1)
+                    .maxConnections(h2MaxConnections)
+                    .build());
+        } else {
+            builder.maxConnections(maxConnections);
+        }
+        ConnectionProvider connectionProvider = builder.build();
+
+        Timer acquireTimer = Timer.builder("gateway.upstream.pool.acquire")
+                .tag("backend", backendId)
+                .description("Time to acquire a pooled connection to the backend, including connecting")
+                .register(meterRegistry);
+        HttpClient httpClient = new BackendHttpClientFactory(httpClientProperties, serverProperties, sslConfigurer,
+                customizers, connectionProvider).create()
+                .protocol(protocol.getHttpProtocols())
+                .option(ChannelOption.ALLOCATOR, allocator)
+                .mapConnect(connection -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return connection.doOnSuccess(ignored ->
+                            acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+                }))
+                .doOnRequest((request, connection) ->
+                        RequestTimeline.mark(request.currentContextView(), RequestTimeline.Mark.UPSTREAM_CONNECTED))
+                .doOnResponse((response, connection) ->
+                        RequestTimeline.mark(response.currentContextView(), RequestTimeline.Mark.UPSTREAM_HEADERS));
+        if (dnsResolver.isEnabled()) {
+            httpClient = httpClient.resolver(dnsResolver);
+        }
+        if (protocol.isHttp2()) {
+            log.info("Created {} client for backend {}, max connections: {}, max concurrent streams per connection: {}",
+                    protocol.getValue(), backendId, h2MaxConnections, streams);
+        } else {
+            log.info("Created {} client for backend {}, max connections: {}",
+                    protocol.getValue(), backendId, maxConnections);
+        }
+        return new BackendClient(httpClient, connectionProvider, acquireTimer);
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> client.connectionProvider().dispose());
+        clients.clear();
+    }
+
+    /**
+     * Parses "backend=value" entries.
+     */
+    private static <T> Map<String, T> parseEntries(List<String> entries, Function<String, T> parser) {
+        Map<String, T> result = new HashMap<>();
+        for (String entry : entries) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                log.warn("Ignoring malformed upstream setting: {}", entry);
+                continue;
+            }
+            try {
+                result.put(entry.substring(0, separator).trim(), parser.apply(entry.substring(separator + 1).trim()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed upstream setting: {}", entry);
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    private record PoolSettings(int maxConnections, int pendingAcquireMaxCount, Duration pendingAcquireTimeout,
+                                Duration maxIdleTime, Duration maxLifeTime, Duration evictInterval, boolean lifo) {
+    }
+
+    private record BackendClient(HttpClient httpClient, ConnectionProvider connectionProvider, Timer acquireTimer) {
+    }
+
+    /**
+     * Exports the state of a backend's pools (one per remote address) as gauges.
+     */
+    private final class PoolMeterRegistrar implements ConnectionProvider.MeterRegistrar {
+
+        private final String backendId;
+
+        private PoolMeterRegistrar(String backendId) {
+            this.backendId = backendId;
+        }
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+                                    ConnectionPoolMetrics metrics) {
+            // The pool's metrics view is not referenced elsewhere, so the gauges must hold on to it
+            Tags tags = Tags.of("backend", backendId, "remote", String.valueOf(remoteAddress));
+            List<Meter> meters = List.of(
+                    Gauge.builder("gateway.upstream.pool.pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                            .tags(tags)
+                            .strongReference(true)
+                            .description("Requests waiting for a connection to the backend")
+                            .register(meterRegistry),
+                    Gauge.builder("gateway.upstream.pool.connections", metrics, ConnectionPoolMetrics::acquiredSize)
+                            .tags(tags)
+                            .strongReference(true)
+                            .tag("state", "active")
+                            .register(meterRegistry),
+                    Gauge.builder("gateway.upstream.pool.connections", metrics, ConnectionPoolMetrics::idleSize)
+                            .tags(tags)
+                            .strongReference(true)
+                            .tag("state", "idle")
+                            .register(meterRegistry),
+                    Gauge.builder("gateway.upstream.pool.connections", metrics, ConnectionPoolMetrics::allocatedSize)
+                            .tags(tags)
+                            .strongReference(true)
+                            .tag("state", "total")
+                            .register(meterRegistry));
+            poolMeters.put(id, meters);
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            List<Meter> meters = poolMeters.remove(id);
+            if (meters != null) {
+                meters.forEach(meterRegistry::remove);
+            }
+        }
+    }
+
+    /**
+     * Builds a client with the gateway's settings on top of a backend's own connection pool.
+     */
+    private static final class BackendHttpClientFactory extends HttpClientFactory {
+
+        private final ConnectionProvider connectionProvider;
+
+        private BackendHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                         HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                         ConnectionProvider connectionProvider) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.connectionProvider = connectionProvider;
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return connectionProvider;
+        }
+
+        private HttpClient create() {
+            return createInstance();
+        }
+    }
+}
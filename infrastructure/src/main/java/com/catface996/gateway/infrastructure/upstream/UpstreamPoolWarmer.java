@@ -0,0 +1,118 @@
+package com.catface996.gateway.infrastructure.upstream;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.infrastructure.support.RouteMetadataUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens connections to every backend before the gateway reports itself ready.
+ * <p>
+ * Runs as an {@link ApplicationRunner}, so Spring Boot publishes readiness (ACCEPTING_TRAFFIC) only
+ * after it finishes. For each backend of a route with "service" metadata, it sends
+ * {@code gateway.upstream.prewarm.connections} concurrent HEAD requests to
+ * {@code gateway.upstream.prewarm.path}; whatever their status, each leaves an open connection
+ * (TCP and TLS done) in the backend's pool for the first real requests. A backend that is down or
+ * slow delays startup by at most {@code gateway.upstream.prewarm.timeout-ms}.
+ */
+@Slf4j
+@Component
+public class UpstreamPoolWarmer implements ApplicationRunner, Ordered {
+
+    /**
+     * Runner order - after the application's own runners, before the JIT warm-up.
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    private final RouteLocator routeLocator;
+    private final UpstreamHttpClientRegistry upstreamHttpClientRegistry;
+    private final boolean enabled;
+    private final int connections;
+    private final String path;
+    private final Duration timeout;
+
+    public UpstreamPoolWarmer(
+            RouteLocator routeLocator,
+            UpstreamHttpClientRegistry upstreamHttpClientRegistry,
+            @Value("${gateway.upstream.prewarm.enabled:true}") boolean enabled,
+            @Value("${gateway.upstream.prewarm.connections:4}") int connections,
+            @Value("${gateway.upstream.prewarm.path:/}") String path,
+            @Value("${gateway.upstream.prewarm.timeout-ms:3000}") long timeoutMs) {
+        this.routeLocator = routeLocator;
+        this.upstreamHttpClientRegistry = upstreamHttpClientRegistry;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.path = path;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || connections <= 0) {
+            return;
+        }
+
+        Map<String, URI> backends = new LinkedHashMap<>();
+        for (Route route : routeLocator.getRoutes().toIterable()) {
+            String backendId = RouteMetadataUtils.getString(route, RouteConstants.METADATA_KEY_SERVICE, null);
+            String scheme = route.getUri().getScheme();
+            if (backendId != null && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                backends.putIfAbsent(backendId, route.getUri());
+            }
+        }
+
+        long start = System.nanoTime();
+        Flux.fromIterable(backends.entrySet())
+                .flatMap(backend -> warm(backend.getKey(), backend.getValue()))
+                .then()
+                .block();
+        log.info("Pre-warmed connection pools of {} backends in {}ms", backends.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Mono<Void> warm(String backendId, URI uri) {
+        HttpClient httpClient = upstreamHttpClientRegistry.get(backendId);
+        String url = uri.resolve(path).toASCIIString();
+        return httpClient.warmup()
+                .thenMany(Flux.range(0, connections)
+                        .flatMap(i -> httpClient.head()
+                                .uri(url)
+                                .response()
+                                .map(response -> response.status().code())
+                                .onErrorResume(ex -> {
+                                    log.debug("Pre-warm request to backend {} failed: {}", backendId, ex.toString());
+                                    return Mono.empty();
+                                }), connections))
+                .take(timeout)
+                .count()
+                .doOnNext(opened -> {
+                    if (opened < connections) {
+                        log.warn("Pre-warmed {} of {} connections to backend {} ({})",
+                                opened, connections, backendId, url);
+                    } else {
+                        log.info("Pre-warmed {} connections to backend {} ({})", opened, backendId, url);
+                    }
+                })
+                .then();
+    }
+}
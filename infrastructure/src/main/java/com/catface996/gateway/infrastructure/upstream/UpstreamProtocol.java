@@ -0,0 +1,64 @@
+package com.catface996.gateway.infrastructure.upstream;
+
+import reactor.netty.http.HttpProtocol;
+
+import java.util.Locale;
+
+/**
+ * Protocol the gateway speaks to a backend.
+ */
+public enum UpstreamProtocol {
+
+    /**
+     * HTTP/1.1, one request per connection at a time.
+     */
+    HTTP11("http1.1", HttpProtocol.HTTP11),
+
+    /**
+     * HTTP/2 over TLS negotiated with ALPN, falling back to HTTP/1.1 if the backend does not offer it.
+     */
+    H2("h2", HttpProtocol.H2, HttpProtocol.HTTP11),
+
+    /**
+     * HTTP/2 over cleartext with prior knowledge, for backends known to accept it.
+     */
+    H2C("h2c", HttpProtocol.H2C);
+
+    private final String value;
+    private final HttpProtocol[] httpProtocols;
+
+    UpstreamProtocol(String value, HttpProtocol... httpProtocols) {
+        this.value = value;
+        this.httpProtocols = httpProtocols;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the Reactor Netty protocols to configure on the client.
+     */
+    public HttpProtocol[] getHttpProtocols() {
+        return httpProtocols.clone();
+    }
+
+    public boolean isHttp2() {
+        return this != HTTP11;
+    }
+
+    /**
+     * Parses a configured protocol ("http1.1", "h2" or "h2c", case-insensitive).
+     *
+     * @throws IllegalArgumentException if the value is not a known protocol
+     */
+    public static UpstreamProtocol of(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (UpstreamProtocol protocol : values()) {
+            if (protocol.value.equals(normalized)) {
+                return protocol;
+            }
+        }
+        throw new IllegalArgumentException("Unknown upstream protocol: " + value);
+    }
+}
@@ -0,0 +1,299 @@
+package com.catface996.gateway.infrastructure.warmup;
+
+import com.catface996.gateway.infrastructure.ratelimit.TokenBucketStore;
+import com.catface996.gateway.infrastructure.resilience.ConcurrencyLimiterRegistry;
+import com.catface996.gateway.infrastructure.resilience.RetryBudgetRegistry;
+import com.catface996.gateway.infrastructure.upstream.UpstreamHttpClientRegistry;
+import com.catface996.gateway.infrastructure.upstream.UpstreamPoolWarmer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Ssl;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.SslProvider.GenericSslContextSpec;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms up the JIT compiler with synthetic traffic before the gateway reports itself ready.
+ * <p>
+ * Until the hot paths are compiled, the first few thousand requests run interpreted or C1-compiled
+ * code and are several times slower. Running as an {@link ApplicationRunner} after
+ * {@code UpstreamPoolWarmer}, so before Spring Boot publishes readiness, this runner starts a
+ * loopback sink, adds the {@link WarmupRouteLocator warm-up route} to it, and sends requests over
+ * HTTP to the gateway's own port: alternately GETs and JSON POSTs of
+ * {@code gateway.warmup.body-bytes}, {@code gateway.warmup.concurrency} at a time. They go through
+ * the server codec, authentication (with a stub result), body injection and every other global
+ * filter, and are proxied to the sink. They are not access-logged, timed as slow requests, observed or
+ * traced ({@link WarmupObservationPredicate}); the outcome is logged once at the end.
+ * <p>
+ * Requests are sent in windows of {@code gateway.warmup.window-size}. Latency has stabilized once
+ * the median latency of {@code gateway.warmup.stable-windows} consecutive windows improved on the
+ * best window so far by less than {@code gateway.warmup.stable-tolerance}; a window that is slower
+ * (noise, a GC) does not count as improving. Warm-up then stops, or after
+ * {@code gateway.warmup.max-requests} or {@code gateway.warmup.max-duration-ms} at the latest.
+ * <p>
+ * Afterwards the state the warm-up backend left behind is evicted with its meters: its connection
+ * pool, circuit breaker, concurrency limiter, retry budget and rate-limit buckets, and the meters
+ * the global filters registered for its route.
+ */
+@Slf4j
+@Component
+public class JitWarmupRunner implements ApplicationRunner, Ordered {
+
+    /**
+     * Runner order - after UpstreamPoolWarmer, so backend connection pools are already open.
+     */
+    public static final int ORDER = UpstreamPoolWarmer.ORDER + 10;
+
+    private final WarmupRouteLocator warmupRouteLocator;
+    private final UpstreamHttpClientRegistry upstreamHttpClientRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final TokenBucketStore tokenBucketStore;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final ServerProperties serverProperties;
+    private final boolean enabled;
+    private final int maxRequests;
+    private final int windowSize;
+    private final int concurrency;
+    private final int bodyBytes;
+    private final double stableTolerance;
+    private final int stableWindows;
+    private final long maxDurationMs;
+
+    public JitWarmupRunner(
+            WarmupRouteLocator warmupRouteLocator,
+            UpstreamHttpClientRegistry upstreamHttpClientRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+            RetryBudgetRegistry retryBudgetRegistry,
+            TokenBucketStore tokenBucketStore,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            ServerProperties serverProperties,
+            @Value("${gateway.warmup.enabled:true}") boolean enabled,
+            @Value("${gateway.warmup.max-requests:10000}") int maxRequests,
+            @Value("${gateway.warmup.window-size:500}") int windowSize,
+            @Value("${gateway.warmup.concurrency:8}") int concurrency,
+            @Value("${gateway.warmup.body-bytes:1024}") int bodyBytes,
+            @Value("${gateway.warmup.stable-tolerance:0.1}") double stableTolerance,
+            @Value("${gateway.warmup.stable-windows:3}") int stableWindows,
+            @Value("${gateway.warmup.max-duration-ms:30000}") long maxDurationMs) {
+        this.warmupRouteLocator = warmupRouteLocator;
+        this.upstreamHttpClientRegistry = upstreamHttpClientRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+        this.retryBudgetRegistry = retryBudgetRegistry;
+        this.tokenBucketStore = tokenBucketStore;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.serverProperties = serverProperties;
+        this.enabled = enabled;
+        this.maxRequests = maxRequests;
+        this.windowSize = Math.max(1, windowSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.bodyBytes = bodyBytes;
+        this.stableTolerance = stableTolerance;
+        this.stableWindows = Math.max(1, stableWindows);
+        this.maxDurationMs = maxDurationMs;
+        log.info("JIT warm-up runner initialized, enabled: {}, max requests: {}, window size: {}, concurrency: {}",
+                enabled, maxRequests, this.windowSize, this.concurrency);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (!enabled || maxRequests <= 0 || port == null || port <= 0) {
+            return;
+        }
+
+        LoopResources loops = LoopResources.create("gateway-warmup", 1, true);
+        ConnectionProvider connections = ConnectionProvider.create("gateway-warmup", concurrency);
+        DisposableServer sink = startSink(loops);
+        try {
+            warmupRouteLocator.activate(URI.create("http://127.0.0.1:" + sink.port()));
+            warmUp(createClient(port, loops, connections));
+        } catch (RuntimeException e) {
+            log.warn("JIT warm-up failed, continuing startup: {}", e.toString());
+        } finally {
+            warmupRouteLocator.deactivate();
+            sink.disposeNow();
+            connections.dispose();
+            loops.dispose();
+            evictWarmupState();
+        }
+    }
+
+    /**
+     * Removes everything created for the warm-up backend and route, so it neither holds resources
+     * nor shows up in metrics once the gateway serves real traffic.
+     */
+    private void evictWarmupState() {
+        String backendId = WarmupRouteLocator.ROUTE_ID;
+        upstreamHttpClientRegistry.remove(backendId);
+        // Removing the entry also removes its tagged meters
+        circuitBreakerRegistry.remove(backendId);
+        concurrencyLimiterRegistry.remove(backendId);
+        retryBudgetRegistry.remove(backendId);
+        tokenBucketStore.removeByPrefix(WarmupRouteLocator.ROUTE_ID + ':');
+        // Per-route meters of the global filters, and Spring Cloud Gateway's own (tagged routeId)
+        Search.in(meterRegistry).tag("route", WarmupRouteLocator.ROUTE_ID).meters().forEach(meterRegistry::remove);
+        Search.in(meterRegistry).tag("routeId", WarmupRouteLocator.ROUTE_ID).meters().forEach(meterRegistry::remove);
+        log.debug("Evicted warm-up backend state");
+    }
+
+    private void warmUp(HttpClient client) {
+        byte[] body = jsonBody(bodyBytes);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        AtomicInteger failures = new AtomicInteger();
+        long firstMedian = -1;
+        long bestMedian = Long.MAX_VALUE;
+        long median = -1;
+        int stable = 0;
+        int sent = 0;
+        while (sent < maxRequests && stable < stableWindows && System.nanoTime() < deadline) {
+            int count = Math.min(windowSize, maxRequests - sent);
+            int offset = sent;
+            long[] latencies = Flux.range(offset, count)
+                    .flatMap(i -> send(client, i, body, failures), concurrency)
+                    .collectList()
+                    .map(list -> list.stream().mapToLong(Long::longValue).toArray())
+                    .block(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())).plusSeconds(5));
+            sent += count;
+            if (latencies == null || latencies.length == 0) {
+                break;
+            }
+            Arrays.sort(latencies);
+            median = latencies[latencies.length / 2];
+            if (firstMedian < 0) {
+                firstMedian = median;
+            }
+            if (bestMedian != Long.MAX_VALUE && median >= bestMedian * (1 - stableTolerance)) {
+                stable++;
+            } else {
+                stable = 0;
+            }
+            bestMedian = Math.min(bestMedian, median);
+            log.debug("JIT warm-up: {} requests sent, window median {}us, p99 {}us", sent,
+                    TimeUnit.NANOSECONDS.toMicros(median),
+                    TimeUnit.NANOSECONDS.toMicros(latencies[(int) (latencies.length * 0.99)]));
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (failures.get() > sent / 2) {
+            log.warn("JIT warm-up: {} of {} requests failed, the filter chain may not be fully warmed up",
+                    failures.get(), sent);
+        }
+        if (stable >= stableWindows) {
+            log.info("JIT warm-up: latency stabilized after {} requests in {}ms, median {}us (first window {}us)",
+                    sent, elapsedMs, TimeUnit.NANOSECONDS.toMicros(median), TimeUnit.NANOSECONDS.toMicros(firstMedian));
+        } else {
+            log.warn("JIT warm-up: latency had not stabilized after {} requests in {}ms, median {}us (first window {}us)",
+                    sent, elapsedMs, TimeUnit.NANOSECONDS.toMicros(median), TimeUnit.NANOSECONDS.toMicros(firstMedian));
+        }
+    }
+
+    /**
+     * Sends one warm-up request and returns its latency in nanoseconds.
+     */
+    private Mono<Long> send(HttpClient client, int i, byte[] body, AtomicInteger failures) {
+        long start = System.nanoTime();
+        HttpClient.ResponseReceiver<?> request = (i & 1) == 0
+                ? client.get().uri(WarmupRouteLocator.PATH_PREFIX + "get?i=" + i)
+                : client.post().uri(WarmupRouteLocator.PATH_PREFIX + "post")
+                        .send(ByteBufFlux.fromString(Mono.just(new String(body, StandardCharsets.UTF_8))));
+        return request.responseSingle((response, content) -> content.then(Mono.just(response.status().code())))
+                .map(status -> {
+                    if (status >= 400) {
+                        failures.incrementAndGet();
+                    }
+                    return System.nanoTime() - start;
+                })
+                .onErrorResume(e -> {
+                    failures.incrementAndGet();
+                    return Mono.just(System.nanoTime() - start);
+                });
+    }
+
+    private HttpClient createClient(int port, LoopResources loops, ConnectionProvider connections) {
+        boolean secure = Ssl.isEnabled(serverProperties.getSsl());
+        HttpClient client = HttpClient.create(connections)
+                .runOn(loops)
+                .baseUrl((secure ? "https" : "http") + "://127.0.0.1:" + port)
+                .headers(headers -> headers
+                        .set(WarmupRouteLocator.TOKEN_HEADER, warmupRouteLocator.getToken())
+                        .set(HttpHeaders.AUTHORIZATION, "Bearer warmup")
+                        .set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .set(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        if (secure) {
+            // Loopback to our own certificate, which need not be valid for 127.0.0.1
+            GenericSslContextSpec<SslContextBuilder> sslContextSpec = Http11SslContextSpec.forClient()
+                    .configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE));
+            client = client.secure(spec -> spec.sslContext(sslContextSpec));
+        }
+        return client;
+    }
+
+    /**
+     * Starts the backend warm-up requests are proxied to, answering every request with the same
+     * JSON body the POSTs carry.
+     */
+    private DisposableServer startSink(LoopResources loops) {
+        byte[] response = jsonBody(bodyBytes);
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(loops)
+                .handle((request, out) -> request.receive().then(out
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(response.length))
+                        .sendByteArray(Mono.just(response))
+                        .then()))
+                .bindNow();
+    }
+
+    /**
+     * Builds a JSON object of about the given size.
+     */
+    private static byte[] jsonBody(int size) {
+        StringBuilder json = new StringBuilder(Math.max(32, size)).append("{\"warmup\":true,\"data\":\"");
+        while (json.length() < size - 2) {
+            json.append('x');
+        }
+        return json.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.catface996.gateway.infrastructure.warmup;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.cloud.gateway.filter.headers.observation.GatewayContext;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps warm-up traffic out of observations.
+ * <p>
+ * Warm-up requests get no server observation and their proxied calls to the sink no gateway client
+ * observation. As a result they are not counted in {@code http.server.requests}, and no spans are
+ * started for them, so none reach the tail sampler or {@code traces.jsonl}. Spring Boot applies every
+ * {@link ObservationPredicate} bean to the observation registry.
+ */
+@Component
+public class WarmupObservationPredicate implements ObservationPredicate {
+
+    private final WarmupRouteLocator warmupRouteLocator;
+
+    public WarmupObservationPredicate(WarmupRouteLocator warmupRouteLocator) {
+        this.warmupRouteLocator = warmupRouteLocator;
+    }
+
+    @Override
+    public boolean test(String name, Observation.Context context) {
+        if (context instanceof ServerRequestObservationContext serverContext) {
+            return !warmupRouteLocator.isWarmupRequest(serverContext.getCarrier());
+        }
+        if (context instanceof GatewayContext gatewayContext) {
+            Route route = gatewayContext.getServerWebExchange().getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            return route == null || !WarmupRouteLocator.ROUTE_ID.equals(route.getId());
+        }
+        return true;
+    }
+}
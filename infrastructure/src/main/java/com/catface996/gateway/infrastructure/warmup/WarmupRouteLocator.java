@@ -0,0 +1,134 @@
+package com.catface996.gateway.infrastructure.warmup;
+
+import com.catface996.gateway.common.constants.RouteConstants;
+import com.catface996.gateway.domain.auth.model.AuthenticationResult;
+import com.catface996.gateway.infrastructure.filter.AuthenticationGatewayFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Contributes the route warm-up traffic is proxied over, only while {@link JitWarmupRunner} runs.
+ * <p>
+ * The route matches paths under {@link #PATH_PREFIX} carrying {@link #TOKEN_HEADER} with a random
+ * token generated at startup, so clients cannot reach it, and it is removed (by refreshing the
+ * routes) before the gateway reports readiness. It is a protected route with "service" metadata like
+ * the real ones, so warm-up requests take the same path through the global filters (authentication,
+ * rate limiting, body injection, resilience filters, backend routing); rate limits are raised so
+ * they do not reject the synthetic load. A route filter puts a stub {@link AuthenticationResult} on
+ * the exchange, which {@code AuthenticationGatewayFilter} uses instead of calling the auth service.
+ */
+@Slf4j
+@Component
+public class WarmupRouteLocator implements RouteLocator {
+
+    /**
+     * Route ID, also the backend ID of the loopback sink.
+     */
+    public static final String ROUTE_ID = "gateway-warmup";
+
+    /**
+     * Path prefix of warm-up requests.
+     */
+    public static final String PATH_PREFIX = "/__gateway/warmup/";
+
+    /**
+     * Header carrying the warm-up token.
+     */
+    public static final String TOKEN_HEADER = "X-Gateway-Warmup";
+
+    /**
+     * Exchange attribute holding the authentication result to use instead of calling the auth service.
+     */
+    public static final String AUTH_RESULT_ATTR = WarmupRouteLocator.class.getName() + ".authResult";
+
+    /**
+     * Operator ID authenticated warm-up requests run as.
+     */
+    public static final long OPERATOR_ID = 0L;
+
+    private static final String UNLIMITED_RATE = "1000000000";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final String token;
+    private volatile Route route;
+
+    public WarmupRouteLocator(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        this.token = HexFormat.of().formatHex(bytes);
+    }
+
+    /**
+     * Returns the token warm-up requests must carry in {@link #TOKEN_HEADER}.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    @Override
+    public Flux<Route> getRoutes() {
+        Route current = route;
+        return current != null ? Flux.just(current) : Flux.empty();
+    }
+
+    /**
+     * Returns whether a request is warm-up traffic: under {@link #PATH_PREFIX} with this process's token.
+     *
+     * @param request the incoming request
+     * @return true for warm-up requests
+     */
+    public boolean isWarmupRequest(ServerHttpRequest request) {
+        return request.getPath().value().startsWith(PATH_PREFIX)
+                && token.equals(request.getHeaders().getFirst(TOKEN_HEADER));
+    }
+
+    /**
+     * Adds the warm-up route, proxying to the given sink.
+     *
+     * @param sinkUri the loopback sink warm-up requests are proxied to
+     */
+    public void activate(URI sinkUri) {
+        AuthenticationResult stubResult = AuthenticationResult.success(OPERATOR_ID);
+        route = Route.async()
+                .id(ROUTE_ID)
+                .uri(sinkUri)
+                .order(Ordered.HIGHEST_PRECEDENCE)
+                .predicate(exchange -> isWarmupRequest(exchange.getRequest()))
+                .filter(new OrderedGatewayFilter((exchange, chain) -> {
+                    exchange.getAttributes().put(AUTH_RESULT_ATTR, stubResult);
+                    return chain.filter(exchange);
+                }, AuthenticationGatewayFilter.ORDER - 1))
+                .metadata(Map.of(
+                        RouteConstants.METADATA_KEY_SERVICE, ROUTE_ID,
+                        RouteConstants.METADATA_KEY_RATE_LIMIT_REPLENISH_RATE, UNLIMITED_RATE,
+                        RouteConstants.METADATA_KEY_RATE_LIMIT_BURST_CAPACITY, UNLIMITED_RATE))
+                .build();
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        log.debug("Warm-up route added, proxying to {}", sinkUri);
+    }
+
+    /**
+     * Removes the warm-up route.
+     */
+    public void deactivate() {
+        if (route != null) {
+            route = null;
+            eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+            log.debug("Warm-up route removed");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.catface996.gateway.loadtest;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.management.ThreadMXBean;
+import com.sun.tools.attach.VirtualMachine;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway under test: the bootstrap module's executable jar, run as a child JVM.
+ * <p>
+ * A separate process keeps the load generator's and the stubs' CPU and allocation out of the
+ * gateway's numbers and runs the gateway exactly as it ships. It is pointed at the stubs with the
+ * local profile, authentication on and rate limits out of the way; {@code --gateway-args} override
+ * any of these. CPU time and allocated bytes are read over JMX from the local management agent.
+ */
+final class GatewayProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final String healthUrl;
+    private JMXConnector connector;
+    private OperatingSystemMXBean os;
+    private ThreadMXBean threads;
+
+    private GatewayProcess(Process process, int port) {
+        this.process = process;
+        // Readiness, which the gateway reports only after its JIT warm-up
+        this.healthUrl = "http://localhost:" + port + "/actuator/health/readiness";
+    }
+
+    /**
+     * Starts the gateway, waits until it reports ready and attaches to it.
+     */
+    static GatewayProcess start(LoadTestOptions options, Path logFile) throws Exception {
+        if (!Files.isRegularFile(options.gatewayJar)) {
+            throw new IllegalStateException("Gateway jar not found: " + options.gatewayJar.toAbsolutePath()
+                    + " (build it with: mvn clean install -DskipTests)");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(options.gatewayJvmArgs);
+        command.add("-jar");
+        command.add(options.gatewayJar.toString());
+        gatewayProperties(options).forEach((name, value) -> command.add("--" + name + "=" + value));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        GatewayProcess gateway = new GatewayProcess(process, options.gatewayPort);
+        try {
+            gateway.awaitHealthy(logFile);
+            gateway.attach();
+        } catch (Exception e) {
+            gateway.close();
+            throw e;
+        }
+        return gateway;
+    }
+
+    private static Map<String, String> gatewayProperties(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.profiles.active", "local");
+        properties.put("server.port", String.valueOf(options.gatewayPort));
+        for (int i = 0; i < StubBackends.SERVICES.length; i++) {
+            properties.put("gateway.services." + StubBackends.SERVICES[i] + ".url",
+                    "http://localhost:" + options.stubPort(i));
+        }
+        properties.put("gateway.auth.enabled", "true");
+        properties.put("gateway.rate-limit.replenish-rate", "1000000");
+        properties.put("gateway.rate-limit.burst-capacity", "1000000");
+        properties.put("logging.level.com.catface996.gateway", "INFO");
+        properties.put("management.endpoints.web.exposure.include", "health,metrics");
+        properties.put("management.endpoint.health.probes.enabled", "true");
+        properties.putAll(options.gatewayArgs);
+        return properties;
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    /**
+     * CPU time used by the gateway process so far, in nanoseconds.
+     */
+    long cpuNanos() {
+        return os.getProcessCpuTime();
+    }
+
+    /**
+     * Bytes allocated on the gateway's heap so far, by live and terminated threads.
+     */
+    long allocatedBytes() {
+        return threads.getTotalThreadAllocatedBytes();
+    }
+
+    private void awaitHealthy(Path logFile) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(healthUrl)).timeout(Duration.ofSeconds(2)).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Gateway exited with " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("Gateway not healthy after " + STARTUP_TIMEOUT.toSeconds() + "s, see " + logFile);
+    }
+
+    private void attach() throws Exception {
+        VirtualMachine vm = VirtualMachine.attach(String.valueOf(process.pid()));
+        String address;
+        try {
+            address = vm.startLocalManagementAgent();
+        } finally {
+            vm.detach();
+        }
+        connector = JMXConnectorFactory.connect(new JMXServiceURL(address));
+        MBeanServerConnection connection = connector.getMBeanServerConnection();
+        os = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME, OperatingSystemMXBean.class);
+        threads = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (connector != null) {
+            connector.close();
+        }
+        process.destroy();
+        if (!process.waitFor(15, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.catface996.gateway.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * End-to-end load test of the gateway, with no external services.
+ * <p>
+ * Starts stub backends and a stub auth service in this JVM, starts the packaged gateway against
+ * them, warms it up, then steps through the requested arrival rates. For each rate it reports
+ * coordinated-omission-corrected latency percentiles and the gateway's CPU time and heap allocation
+ * per request; the full latency distribution of each step is written to the output directory as an
+ * HdrHistogram percentile file ({@code latency-<rate>.hgrm}).
+ * <p>
+ * Run {@code java -jar load-test/target/load-test.jar --help} for the options.
+ */
+public final class LoadTest {
+
+    private static final String HEADER = String.format("%8s %9s %8s %7s %7s %8s %8s %8s %8s %8s %9s %9s %10s",
+            "rate/s", "achieved", "sent", "non2xx", "errors", "p50", "p90", "p99", "p99.9", "max",
+            "p99 uncor", "cpu/req", "alloc/req");
+
+    private LoadTest() {
+        // Utility class, prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        Files.createDirectories(options.outputDir);
+
+        System.out.printf("Stubs: latency %dms (+0-%dms), payload %d bytes, error rate %.3f, auth latency %dms%n",
+                options.latency.toMillis(), options.latencyJitter.toMillis(), options.payloadBytes,
+                options.errorRate, options.authLatency.toMillis());
+        System.out.printf("Load: %s %s, %ds per rate after %ds warm-up%n", options.method, options.path,
+                options.duration.toSeconds(), options.warmup.toSeconds());
+
+        List<String> rows = new ArrayList<>();
+        try (StubBackends stubs = StubBackends.start(options);
+             GatewayProcess gateway = GatewayProcess.start(options, options.outputDir.resolve("gateway.log"));
+             OpenLoadGenerator generator = new OpenLoadGenerator(options)) {
+            System.out.printf("Gateway started (pid %d), warming up at %d req/s%n", gateway.pid(), options.rates[0]);
+            generator.run(options.rates[0], options.warmup);
+
+            System.out.println(HEADER);
+            for (int rate : options.rates) {
+                long cpuBefore = gateway.cpuNanos();
+                long allocatedBefore = gateway.allocatedBytes();
+                OpenLoadGenerator.StepResult result = generator.run(rate, options.duration);
+                long cpu = gateway.cpuNanos() - cpuBefore;
+                long allocated = gateway.allocatedBytes() - allocatedBefore;
+
+                String row = row(result, cpu, allocated);
+                rows.add(row);
+                System.out.println(row);
+                if (result.dropped() > 0 || result.unfinished() > 0) {
+                    System.out.printf("%8s dropped %d arrivals, %d requests unfinished: the gateway is past capacity"
+                            + " (latencies count them at the response timeout)%n", "", result.dropped(), result.unfinished());
+                }
+                try (PrintStream out = new PrintStream(options.outputDir.resolve("latency-" + rate + ".hgrm").toFile())) {
+                    result.latency().outputPercentileDistribution(out, 1e6);
+                }
+            }
+        }
+
+        Path report = options.outputDir.resolve("report.txt");
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        lines.addAll(rows);
+        Files.write(report, lines);
+        System.out.println("Latencies in ms, CPU in microseconds; report and latency distributions in " + options.outputDir);
+    }
+
+    private static String row(OpenLoadGenerator.StepResult result, long cpuNanos, long allocatedBytes) {
+        Histogram latency = result.latency();
+        long completed = result.succeeded() + result.failedStatus();
+        return String.format("%8d %9.1f %8d %7d %7d %8.2f %8.2f %8.2f %8.2f %8.2f %9.2f %9.1f %10s",
+                result.rate(), result.achievedRate(), result.sent(), result.failedStatus(), result.errors(),
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()), millis(result.serviceTime().getValueAtPercentile(99)),
+                completed > 0 ? cpuNanos / 1e3 / completed : 0.0,
+                completed > 0 ? bytes(allocatedBytes / completed) : "-");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String bytes(long bytes) {
+        return bytes >= 10 * 1024 ? (bytes / 1024) + "KB" : bytes + "B";
+    }
+}
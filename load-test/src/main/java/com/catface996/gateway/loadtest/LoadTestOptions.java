@@ -0,0 +1,192 @@
+package com.catface996.gateway.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Options of a load test run, parsed from {@code --name=value} arguments.
+ */
+final class LoadTestOptions {
+
+    static final String USAGE = """
+            Usage: java -jar load-test/target/load-test.jar [--name=value ...]
+
+            Load:
+              --rates=100,250,500          arrival rates to step through, requests per second
+              --duration=30s               measured time per rate
+              --warmup=15s                 unmeasured warm-up at the first rate
+              --method=GET                 GET or POST
+              --path=/api/service/load     gateway path (any /api/{service,executor,tools,auth}/** route)
+              --body-bytes=1024            request body size for POST
+              --max-in-flight=5000         requests outstanding before new arrivals are counted as dropped
+
+            Stub backends:
+              --latency-ms=5               backend response latency
+              --latency-jitter-ms=0        uniform random extra latency, 0 to this value
+              --payload-bytes=1024         backend response body size
+              --error-rate=0               fraction of backend responses that are 500s
+              --auth-latency-ms=1          latency of the stub auth service's token validation
+
+            Gateway:
+              --gateway-jar=bootstrap/target/op-stack-gateway-1.0.0-SNAPSHOT.jar
+              --gateway-jvm-args="-Xms512m -Xmx512m"
+              --gateway-args="--name=value ..."   extra gateway properties, overriding the load test's
+              --gateway-port=18080
+              --stub-base-port=18081       service, executor, tools and auth stubs on four consecutive ports
+              --output-dir=target/load-test
+            """;
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rates", "100,250,500");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("warmup", "15s");
+        DEFAULTS.put("method", "GET");
+        DEFAULTS.put("path", "/api/service/load");
+        DEFAULTS.put("body-bytes", "1024");
+        DEFAULTS.put("max-in-flight", "5000");
+        DEFAULTS.put("latency-ms", "5");
+        DEFAULTS.put("latency-jitter-ms", "0");
+        DEFAULTS.put("payload-bytes", "1024");
+        DEFAULTS.put("error-rate", "0");
+        DEFAULTS.put("auth-latency-ms", "1");
+        DEFAULTS.put("gateway-jar", "bootstrap/target/op-stack-gateway-1.0.0-SNAPSHOT.jar");
+        DEFAULTS.put("gateway-jvm-args", "-Xms512m -Xmx512m");
+        DEFAULTS.put("gateway-args", "");
+        DEFAULTS.put("gateway-port", "18080");
+        DEFAULTS.put("stub-base-port", "18081");
+        DEFAULTS.put("output-dir", "target/load-test");
+    }
+
+    final int[] rates;
+    final Duration duration;
+    final Duration warmup;
+    final String method;
+    final String path;
+    final int bodyBytes;
+    final int maxInFlight;
+    final Duration latency;
+    final Duration latencyJitter;
+    final int payloadBytes;
+    final double errorRate;
+    final Duration authLatency;
+    final Path gatewayJar;
+    final List<String> gatewayJvmArgs;
+    final Map<String, String> gatewayArgs;
+    final int gatewayPort;
+    final int stubBasePort;
+    final Path outputDir;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.rates = Arrays.stream(values.get("rates").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        this.duration = duration(values.get("duration"));
+        this.warmup = duration(values.get("warmup"));
+        this.method = values.get("method").toUpperCase(Locale.ROOT);
+        this.path = values.get("path");
+        this.bodyBytes = Integer.parseInt(values.get("body-bytes"));
+        this.maxInFlight = Integer.parseInt(values.get("max-in-flight"));
+        this.latency = Duration.ofMillis(Long.parseLong(values.get("latency-ms")));
+        this.latencyJitter = Duration.ofMillis(Long.parseLong(values.get("latency-jitter-ms")));
+        this.payloadBytes = Integer.parseInt(values.get("payload-bytes"));
+        this.errorRate = Double.parseDouble(values.get("error-rate"));
+        this.authLatency = Duration.ofMillis(Long.parseLong(values.get("auth-latency-ms")));
+        this.gatewayJar = locate(values.get("gateway-jar"));
+        this.gatewayJvmArgs = split(values.get("gateway-jvm-args"));
+        this.gatewayArgs = properties(values.get("gateway-args"));
+        this.gatewayPort = Integer.parseInt(values.get("gateway-port"));
+        this.stubBasePort = Integer.parseInt(values.get("stub-base-port"));
+        this.outputDir = Path.of(values.get("output-dir"));
+
+        if (rates.length == 0 || Arrays.stream(rates).anyMatch(rate -> rate <= 0)) {
+            throw new IllegalArgumentException("--rates must be positive: " + values.get("rates"));
+        }
+        if (!method.equals("GET") && !method.equals("POST")) {
+            throw new IllegalArgumentException("--method must be GET or POST: " + method);
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("--error-rate must be between 0 and 1: " + errorRate);
+        }
+    }
+
+    /**
+     * Parses the command line; unknown options are rejected.
+     */
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            values.put(name, arg.substring(eq + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /**
+     * Port of the n-th stub: 0 op-stack-service, 1 op-stack-executor, 2 op-stack-tools, 3 op-stack-auth.
+     */
+    int stubPort(int index) {
+        return stubBasePort + index;
+    }
+
+    /**
+     * Parses {@code 500ms}, {@code 30s} or {@code 2m}; a bare number is seconds.
+     */
+    private static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("s")) {
+            v = v.substring(0, v.length() - 1);
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    /**
+     * Resolves the gateway jar against the working directory, or its parent when run from a module directory.
+     */
+    private static Path locate(String jar) {
+        Path path = Path.of(jar);
+        if (!path.isAbsolute() && !Files.exists(path) && Files.exists(Path.of("..").resolve(path))) {
+            return Path.of("..").resolve(path).normalize();
+        }
+        return path;
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.trim().split("\\s+"))
+                .filter(part -> !part.isEmpty())
+                .toList();
+    }
+
+    private static Map<String, String> properties(String value) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String arg : split(value)) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("--gateway-args expects --name=value properties: " + arg);
+            }
+            properties.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,164 @@
+package com.catface996.gateway.loadtest;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: sends requests at a fixed arrival rate whatever the responses do.
+ * <p>
+ * Request {@code i} of a step is due at {@code start + i / rate}; a single thread sends each one at
+ * its due time and never waits for responses, so a slow gateway faces the same arrivals as a fast
+ * one. Latency is measured from the due time, not from when the request actually went out, which
+ * corrects for coordinated omission: when the generator itself falls behind (a GC pause, a full
+ * connection pool), the delay counts against the requests that should have been sent meanwhile
+ * instead of disappearing. The uncorrected service time, from the actual send, is recorded too.
+ * <p>
+ * Requests that fail or time out count at the time they failed. Arrivals dropped at
+ * {@code --max-in-flight}, and requests still outstanding when a step gives up waiting, count at
+ * the response timeout: leaving them out would make the percentiles of an overloaded step look
+ * better than those of one that keeps up.
+ */
+final class OpenLoadGenerator implements AutoCloseable {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9"
+            + ".eyJzdWIiOiIxMDAxIiwib3BlcmF0b3JJZCI6MTAwMSwicm9sZXMiOlsiT1BFUkFUT1IiXSwiaWF0IjoxNzAwMDAwMDAwLCJleHAiOjE3MDAwMDM2MDB9"
+            + ".3q2N8k7aJ0cZ9YvYp2r1nX6tQk8bW4eL5mH0sU1fG7o";
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(35);
+
+    private final LoadTestOptions options;
+    private final LoopResources loops = LoopResources.create("load", 2, true);
+    private final ConnectionProvider connections;
+    private final HttpClient client;
+    private final byte[] body;
+
+    OpenLoadGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.connections = ConnectionProvider.builder("load")
+                .maxConnections(options.maxInFlight)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = HttpClient.create(connections)
+                .runOn(loops)
+                .baseUrl("http://localhost:" + options.gatewayPort)
+                .responseTimeout(RESPONSE_TIMEOUT)
+                .headers(headers -> headers
+                        .set(HttpHeaderNames.AUTHORIZATION, "Bearer " + TOKEN)
+                        .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+        this.body = ("{\"data\":\"" + "x".repeat(Math.max(0, options.bodyBytes - 13)) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends {@code rate} requests per second for {@code duration} and waits for the responses.
+     */
+    StepResult run(int rate, Duration duration) throws InterruptedException {
+        Recorder latency = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        LongAdder succeeded = new LongAdder();
+        LongAdder failedStatus = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicInteger inFlight = new AtomicInteger();
+        long dropped = 0;
+        long sent = 0;
+
+        double intervalNanos = 1e9 / rate;
+        long total = Math.max(1, (long) (duration.toNanos() / intervalNanos));
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long due = start + (long) (i * intervalNanos);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= options.maxInFlight) {
+                // The gateway has stopped keeping up; count the arrival instead of queueing it forever
+                dropped++;
+                latency.recordValue(RESPONSE_TIMEOUT.toNanos());
+                continue;
+            }
+            inFlight.incrementAndGet();
+            sent++;
+            long sentAt = System.nanoTime();
+            request().subscribe(
+                    status -> {
+                        long now = System.nanoTime();
+                        latency.recordValue(Math.min(now - due, HIGHEST_TRACKABLE_NANOS));
+                        serviceTime.recordValue(Math.min(now - sentAt, HIGHEST_TRACKABLE_NANOS));
+                        if (status >= 200 && status < 300) {
+                            succeeded.increment();
+                        } else {
+                            failedStatus.increment();
+                        }
+                        inFlight.decrementAndGet();
+                    },
+                    error -> {
+                        long now = System.nanoTime();
+                        latency.recordValue(Math.min(now - due, HIGHEST_TRACKABLE_NANOS));
+                        serviceTime.recordValue(Math.min(now - sentAt, HIGHEST_TRACKABLE_NANOS));
+                        errors.increment();
+                        inFlight.decrementAndGet();
+                    });
+        }
+        long sendNanos = System.nanoTime() - start;
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        int unfinished = inFlight.get();
+        if (unfinished > 0) {
+            latency.recordValueWithCount(RESPONSE_TIMEOUT.toNanos(), unfinished);
+        }
+        return new StepResult(rate, sent / (sendNanos / 1e9), sent, succeeded.sum(), failedStatus.sum(),
+                errors.sum(), dropped, unfinished, latency.getIntervalHistogram(), serviceTime.getIntervalHistogram());
+    }
+
+    private Mono<Integer> request() {
+        HttpClient.ResponseReceiver<?> receiver = options.method.equals("POST")
+                ? client.post().uri(options.path).send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(body)))
+                : client.get().uri(options.path);
+        return receiver.responseSingle((response, content) -> content.asByteArray()
+                .then(Mono.just(response.status().code())));
+    }
+
+    @Override
+    public void close() {
+        connections.dispose();
+        loops.dispose();
+    }
+
+    /**
+     * Outcome of one rate step. Latencies are in nanoseconds.
+     *
+     * @param rate           target arrival rate, requests per second
+     * @param achievedRate   rate at which requests actually went out
+     * @param sent           requests sent
+     * @param succeeded      2xx responses
+     * @param failedStatus   non-2xx responses
+     * @param errors         connection errors and timeouts
+     * @param dropped        arrivals not sent because {@code --max-in-flight} requests were outstanding
+     * @param unfinished     requests still outstanding when the step gave up waiting
+     * @param latency        latency from each arrival's due time (coordinated omission corrected), with
+     *                       dropped and unfinished arrivals at the response timeout
+     * @param serviceTime    latency from each request's actual send time (uncorrected)
+     */
+    record StepResult(int rate, double achievedRate, long sent, long succeeded, long failedStatus, long errors,
+                      long dropped, long unfinished, Histogram latency, Histogram serviceTime) {
+    }
+}
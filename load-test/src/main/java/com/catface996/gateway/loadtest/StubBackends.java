@@ -0,0 +1,113 @@
+package com.catface996.gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-ins for op-stack-service, op-stack-executor, op-stack-tools and op-stack-auth.
+ * <p>
+ * Every stub answers any request with a JSON body of {@code --payload-bytes} after
+ * {@code --latency-ms} (plus up to {@code --latency-jitter-ms}), and answers a fraction
+ * {@code --error-rate} with 500. The auth stub additionally accepts every token on
+ * {@code POST /auth/validate} after {@code --auth-latency-ms}. Latency is a timer, not a sleep, so
+ * the stubs hold any number of outstanding requests on a couple of event loops of their own.
+ */
+final class StubBackends implements AutoCloseable {
+
+    static final String[] SERVICES = {"op-stack-service", "op-stack-executor", "op-stack-tools", "op-stack-auth"};
+
+    private static final String VALIDATE_PATH = "/auth/validate";
+    private static final byte[] VALIDATE_RESPONSE = "{\"success\":true,\"operatorId\":1001}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_RESPONSE = "{\"code\":\"500\",\"message\":\"stub error\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final LoadTestOptions options;
+    private final byte[] payload;
+    private final LoopResources loops = LoopResources.create("stub", 2, true);
+    private final List<DisposableServer> servers = new ArrayList<>();
+
+    private StubBackends(LoadTestOptions options) {
+        this.options = options;
+        this.payload = payload(options.payloadBytes);
+    }
+
+    /**
+     * Starts one stub per backend service on {@link LoadTestOptions#stubPort consecutive ports}.
+     */
+    static StubBackends start(LoadTestOptions options) {
+        StubBackends stubs = new StubBackends(options);
+        for (int i = 0; i < SERVICES.length; i++) {
+            stubs.servers.add(HttpServer.create()
+                    .runOn(stubs.loops)
+                    .port(options.stubPort(i))
+                    .handle(stubs::handle)
+                    .bindNow());
+        }
+        return stubs;
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        boolean validate = request.method().name().equals("POST") && request.uri().startsWith(VALIDATE_PATH);
+        Duration delay = validate ? options.authLatency : backendLatency();
+        byte[] body;
+        HttpResponseStatus status;
+        if (validate) {
+            body = VALIDATE_RESPONSE;
+            status = HttpResponseStatus.OK;
+        } else if (options.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate) {
+            body = ERROR_RESPONSE;
+            status = HttpResponseStatus.INTERNAL_SERVER_ERROR;
+        } else {
+            body = payload;
+            status = HttpResponseStatus.OK;
+        }
+
+        // Read the whole request before answering, as a real backend would
+        return request.receive().then()
+                .then(delay.isZero() ? Mono.empty() : Mono.delay(delay).then())
+                .then(Mono.defer(() -> response.status(status)
+                        .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                        .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+                        .sendByteArray(Mono.just(body))
+                        .then()));
+    }
+
+    private Duration backendLatency() {
+        long jitter = options.latencyJitter.toMillis();
+        if (jitter <= 0) {
+            return options.latency;
+        }
+        return options.latency.plusMillis(ThreadLocalRandom.current().nextLong(jitter + 1));
+    }
+
+    /**
+     * Returns a JSON document of exactly {@code size} bytes (or the smallest valid one).
+     */
+    private static byte[] payload(int size) {
+        String prefix = "{\"code\":\"0\",\"message\":\"ok\",\"data\":\"";
+        String suffix = "\"}";
+        int fill = Math.max(0, size - prefix.length() - suffix.length());
+        return (prefix + "x".repeat(fill) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(DisposableServer::disposeNow);
+        loops.dispose();
+    }
+}
@@ -0,0 +1,39 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal backend for benchmarks: answers every request with a small JSON body.
+ * <p>
+ * Runs with the JDK alone ({@code java scripts/StubBackend.java [port]}) and serves each request on
+ * a virtual thread, so it keeps up with the gateway and the numbers measure the gateway.
+ */
+public final class StubBackend {
+
+    private static final byte[] BODY = "{\"code\":\"0\",\"message\":\"ok\",\"data\":{\"id\":1,\"name\":\"stub\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private StubBackend() {
+        // Utility class, prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18083;
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+        System.out.println("Stub backend listening on port " + port);
+    }
+}
@@ -0,0 +1,142 @@
+#!/usr/bin/env bash
+#
+# Compares gateway start-up time across packaging modes, as time to the first proxied request.
+#
+# Starts a stub backend, then for each mode starts the gateway with the local profile, waits for its
+# readiness probe and polls GET /api/tools/bench (the op-stack-tools route, through the full global
+# filter chain) until it is proxied with a 200. The time from launching the process to that response
+# is what a deploy waits for before the pod can serve; the "Started ... in" time Spring reports and the resident memory
+# after the first request are shown next to it. Each mode runs RUNS times and the median is reported.
+# Gateway logs are kept in target/benchmark-startup/.
+#
+# Modes, skipped when their artifacts have not been built:
+#   jar     the executable jar as is              mvn clean install -DskipTests
+#   aot     the jar with Spring AOT               mvn clean install -DskipTests -Paot
+#   cds     the extracted jar with its AppCDS archive, and AOT if the jar was built with it
+#                                                 mvn clean install -DskipTests -Pcds (or -Paot,cds)
+#   native  the GraalVM native image              mvn clean install -DskipTests -Pnative
+#
+# Usage: scripts/benchmark-startup.sh
+#
+# Environment:
+#   MODES         modes to compare (default: "jar aot cds native")
+#   RUNS          starts per mode (default: 5)
+#   JIT_WARMUP    run the JIT warm-up before readiness (default: false, so modes compare start-up alone)
+#   GATEWAY_PORT  (default: 18080), BACKEND_PORT (default: 18083)
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="$ROOT/bootstrap/target"
+JAR="${JAR:-$TARGET/op-stack-gateway-1.0.0-SNAPSHOT.jar}"
+CDS_JAR="$TARGET/cds/$(basename "$JAR")"
+CDS_ARCHIVE="$TARGET/cds/application.jsa"
+NATIVE="$TARGET/op-stack-gateway"
+JAVA="${JAVA:-${JAVA_HOME:+$JAVA_HOME/bin/}java}"
+MODES="${MODES:-jar aot cds native}"
+RUNS="${RUNS:-5}"
+JIT_WARMUP="${JIT_WARMUP:-false}"
+GATEWAY_PORT="${GATEWAY_PORT:-18080}"
+BACKEND_PORT="${BACKEND_PORT:-18083}"
+OUT="$ROOT/target/benchmark-startup"
+URL="http://localhost:$GATEWAY_PORT/api/tools/bench"
+READINESS_URL="http://localhost:$GATEWAY_PORT/actuator/health/readiness"
+
+[ -f "$JAR" ] || { echo "Gateway jar not found: $JAR (run mvn clean install -DskipTests)" >&2; exit 1; }
+mkdir -p "$OUT"
+
+# AOT-generated classes are packaged only when the jar was built with -Paot (or -Pnative)
+AOT_BUILT=false
+[ -d "$TARGET/spring-aot" ] && AOT_BUILT=true
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+}
+trap cleanup EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+wait_for() {
+    local url="$1"
+    for _ in $(seq 1 120); do
+        curl -sf -o /dev/null "$url" && return 0
+        sleep 0.5
+    done
+    echo "Timed out waiting for $url" >&2
+    return 1
+}
+
+# Prints the command line of a mode, or nothing if its artifacts are missing
+command_for() {
+    case "$1" in
+        jar) echo "$JAVA -jar $JAR" ;;
+        aot) $AOT_BUILT && echo "$JAVA -Dspring.aot.enabled=true -jar $JAR" ;;
+        cds) [ -f "$CDS_ARCHIVE" ] && echo "$JAVA -XX:SharedArchiveFile=$CDS_ARCHIVE -Xlog:cds=error \
+-Dspring.aot.enabled=$AOT_BUILT -jar $CDS_JAR" ;;
+        native) [ -x "$NATIVE" ] && echo "$NATIVE" ;;
+        *) echo "Unknown mode: $1" >&2; exit 1 ;;
+    esac
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+"$JAVA" "$ROOT/scripts/StubBackend.java" "$BACKEND_PORT" > "$OUT/backend.log" 2>&1 &
+PIDS+=($!)
+wait_for "http://localhost:$BACKEND_PORT/"
+
+RESULTS=()
+for mode in $MODES; do
+    cmd="$(command_for "$mode" || true)"
+    if [ -z "$cmd" ]; then
+        echo "== $mode: not built, skipped"
+        continue
+    fi
+    echo "== $mode: $cmd"
+    : > "$OUT/first-request-$mode.txt"
+    : > "$OUT/started-$mode.txt"
+    : > "$OUT/rss-$mode.txt"
+    for run in $(seq 1 "$RUNS"); do
+        start=$(now_ms)
+        # shellcheck disable=SC2086
+        $cmd \
+            --spring.profiles.active=local \
+            --server.port="$GATEWAY_PORT" \
+            --gateway.services.op-stack-tools.url="http://localhost:$BACKEND_PORT" \
+            --gateway.rate-limit.replenish-rate=1000000 \
+            --gateway.rate-limit.burst-capacity=1000000 \
+            --gateway.warmup.enabled="$JIT_WARMUP" \
+            --management.endpoint.health.probes.enabled=true \
+            --logging.level.com.catface996.gateway=INFO \
+            > "$OUT/gateway-$mode-$run.log" 2>&1 &
+        gateway=$!
+        PIDS+=("$gateway")
+
+        until curl -sf -o /dev/null "$READINESS_URL" && curl -sf -o /dev/null "$URL"; do
+            kill -0 "$gateway" 2>/dev/null || { echo "Gateway exited, see $OUT/gateway-$mode-$run.log" >&2; exit 1; }
+            sleep 0.02
+        done
+        first=$(( $(now_ms) - start ))
+        started=$(grep -ao "Started GatewayApplication in [0-9.]*" "$OUT/gateway-$mode-$run.log" | awk '{print $4 * 1000}')
+        rss=$(ps -o rss= -p "$gateway" | awk '{print int($1 / 1024)}')
+        echo "   run $run: first proxied request after ${first}ms (started in ${started%.*}ms, ${rss}MB RSS)"
+        echo "$first" >> "$OUT/first-request-$mode.txt"
+        echo "${started%.*}" >> "$OUT/started-$mode.txt"
+        echo "$rss" >> "$OUT/rss-$mode.txt"
+
+        kill "$gateway"
+        wait "$gateway" 2>/dev/null || true
+    done
+    RESULTS+=("$(printf '%-8s %18s %14s %10s' "$mode" "$(median < "$OUT/first-request-$mode.txt")ms" \
+        "$(median < "$OUT/started-$mode.txt")ms" "$(median < "$OUT/rss-$mode.txt")MB")")
+done
+
+echo
+printf '%-8s %18s %14s %10s\n' mode first-request started rss
+printf '%s\n' "${RESULTS[@]}"
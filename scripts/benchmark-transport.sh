@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+#
+# Compares proxied throughput of the NIO and native (epoll) Netty transports.
+#
+# Starts a stub backend, then for each transport starts the gateway jar with the local profile,
+# warms it up and drives GET /api/tools/bench (the op-stack-tools route, through the full global
+# filter chain) with wrk. Rate limits are raised so they do not cap the run; everything else uses
+# the shipped defaults. Results are printed as a table at the end; gateway logs are kept in
+# target/benchmark-transport/.
+#
+# Usage: scripts/benchmark-transport.sh   (build first with: mvn clean install -DskipTests)
+#
+# Environment:
+#   TRANSPORTS    transports to compare (default: "nio native")
+#   DURATION      measured run per transport (default: 30s)
+#   WARMUP        warm-up run per transport (default: 10s)
+#   CONNECTIONS   concurrent connections (default: 64)
+#   THREADS       wrk threads (default: 4)
+#   EVENT_LOOPS   gateway event loop threads, 0 for one per core (default: 0)
+#   GATEWAY_PORT  (default: 18080), BACKEND_PORT (default: 18083)
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="${JAR:-$ROOT/bootstrap/target/op-stack-gateway-1.0.0-SNAPSHOT.jar}"
+JAVA="${JAVA:-${JAVA_HOME:+$JAVA_HOME/bin/}java}"
+TRANSPORTS="${TRANSPORTS:-nio native}"
+DURATION="${DURATION:-30s}"
+WARMUP="${WARMUP:-10s}"
+CONNECTIONS="${CONNECTIONS:-64}"
+THREADS="${THREADS:-4}"
+EVENT_LOOPS="${EVENT_LOOPS:-0}"
+GATEWAY_PORT="${GATEWAY_PORT:-18080}"
+BACKEND_PORT="${BACKEND_PORT:-18083}"
+OUT="$ROOT/target/benchmark-transport"
+URL="http://localhost:$GATEWAY_PORT/api/tools/bench"
+
+command -v wrk >/dev/null || { echo "wrk is required (https://github.com/wg/wrk)" >&2; exit 1; }
+[ -f "$JAR" ] || { echo "Gateway jar not found: $JAR (run mvn clean install -DskipTests)" >&2; exit 1; }
+mkdir -p "$OUT"
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+}
+trap cleanup EXIT
+
+wait_for() {
+    local url="$1"
+    for _ in $(seq 1 120); do
+        curl -sf -o /dev/null "$url" && return 0
+        sleep 0.5
+    done
+    echo "Timed out waiting for $url" >&2
+    return 1
+}
+
+"$JAVA" "$ROOT/scripts/StubBackend.java" "$BACKEND_PORT" > "$OUT/backend.log" 2>&1 &
+PIDS+=($!)
+wait_for "http://localhost:$BACKEND_PORT/"
+
+RESULTS=()
+for transport in $TRANSPORTS; do
+    echo "== $transport"
+    "$JAVA" -jar "$JAR" \
+        --spring.profiles.active=local \
+        --server.port="$GATEWAY_PORT" \
+        --gateway.services.op-stack-tools.url="http://localhost:$BACKEND_PORT" \
+        --gateway.transport.type="$transport" \
+        --gateway.transport.event-loop-threads="$EVENT_LOOPS" \
+        --gateway.rate-limit.replenish-rate=1000000 \
+        --gateway.rate-limit.burst-capacity=1000000 \
+        --logging.level.com.catface996.gateway=INFO \
+        > "$OUT/gateway-$transport.log" 2>&1 &
+    gateway=$!
+    PIDS+=("$gateway")
+    wait_for "http://localhost:$GATEWAY_PORT/actuator/health"
+    grep -m1 "Netty transport" "$OUT/gateway-$transport.log" | sed 's/.* - /   /' || true
+
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" "$URL" > /dev/null
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "$URL" | tee "$OUT/wrk-$transport.txt"
+
+    rps=$(awk '/^Requests\/sec/ {print $2}' "$OUT/wrk-$transport.txt")
+    p50=$(awk '$1 == "50%" {print $2}' "$OUT/wrk-$transport.txt")
+    p99=$(awk '$1 == "99%" {print $2}' "$OUT/wrk-$transport.txt")
+    errors=$(awk '/Non-2xx|Socket errors/ {print}' "$OUT/wrk-$transport.txt" | tr '\n' ' ')
+    RESULTS+=("$(printf '%-8s %12s %10s %10s  %s' "$transport" "$rps" "$p50" "$p99" "${errors:-none}")")
+
+    kill "$gateway"
+    wait "$gateway" 2>/dev/null || true
+done
+
+echo
+printf '%-8s %12s %10s %10s  %s\n' transport req/s p50 p99 errors
+printf '%s\n' "${RESULTS[@]}"